@@ -0,0 +1,152 @@
+package com.apifactory.clientcontractapi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Thin client of the API over the JDK HTTP client: login, seeding calls and request builders for the workload.
+ * Thread-safe once logged in.
+ */
+public class ApiClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private String token;
+
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Authenticates through /api/auth/login and keeps the token for the next requests.
+     *
+     * @throws IllegalStateException if the credentials are refused
+     */
+    public void login(String username, String password) throws IOException, InterruptedException {
+        ObjectNode body = MAPPER.createObjectNode().put("username", username).put("password", password);
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build());
+        token = MAPPER.readTree(response.body()).path("token").asText();
+    }
+
+    /**
+     * Creates a person client with a unique email.
+     *
+     * @param runId identifies the run, so that several runs can seed the same database
+     * @param index index of the client in this run
+     * @return the id of the created client
+     */
+    public UUID createPerson(String runId, int index) throws IOException, InterruptedException {
+        ObjectNode body = MAPPER.createObjectNode()
+                .put("name", "Load " + runId + " " + index)
+                .put("email", "load-" + runId + "-" + index + "@load.test")
+                .put("phone", "+3360000" + String.format("%04d", index % 10_000))
+                .put("type", "PERSON")
+                .put("birthDate", "1990-01-01");
+        HttpResponse<String> response = send(post("/api/clients", body.toString()));
+        return UUID.fromString(MAPPER.readTree(response.body()).path("id").asText());
+    }
+
+    /**
+     * Creates contracts through the NDJSON batch endpoint, spread round-robin over the given clients.
+     *
+     * @param clientIds clients owning the contracts
+     * @param from      index of the first contract, used to pick its client
+     * @param count     number of contracts to create
+     * @return the ids of the created contracts
+     */
+    public List<Long> createContracts(List<UUID> clientIds, int from, int count) throws IOException, InterruptedException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int index = from; index < from + count; index++) {
+            BigDecimal amount = BigDecimal.valueOf(10_000 + index % 990_000, 2);
+            ndjson.append(contractJson(clientIds.get(index % clientIds.size()), amount)).append('\n');
+        }
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/contracts/batch"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build());
+
+        List<Long> ids = new ArrayList<>(count);
+        for (JsonNode row : MAPPER.readTree(response.body()).path("rows")) {
+            if (row.hasNonNull("id")) {
+                ids.add(row.get("id").asLong());
+            }
+        }
+        return ids;
+    }
+
+    public HttpRequest get(String path) {
+        return authorized(path).GET().build();
+    }
+
+    public HttpRequest post(String path, String json) {
+        return authorized(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    public HttpRequest put(String path) {
+        return authorized(path).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    /**
+     * Sends a workload request; the body is read and dropped.
+     *
+     * @return the HTTP status
+     */
+    public int execute(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    static String contractJson(UUID clientId, BigDecimal costAmount) {
+        return MAPPER.createObjectNode()
+                .put("clientId", clientId.toString())
+                .put("costAmount", costAmount)
+                .toString();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    /** Sends a seeding request, which must succeed. */
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " failed with HTTP "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+}
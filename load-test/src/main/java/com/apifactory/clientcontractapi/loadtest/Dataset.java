@@ -0,0 +1,27 @@
+package com.apifactory.clientcontractapi.loadtest;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Clients and contracts seeded before the run, targeted by the workload.
+ */
+public record Dataset(List<UUID> clientIds, List<Long> contractIds) {
+
+    public UUID randomClient(Random random) {
+        return clientIds.get(random.nextInt(clientIds.size()));
+    }
+
+    /**
+     * Picks a seeded contract.
+     *
+     * @throws IllegalStateException if no contract was seeded
+     */
+    public long randomContract(Random random) {
+        if (contractIds.isEmpty()) {
+            throw new IllegalStateException("No seeded contract: use --contracts > 0 or remove contracts.updateCost from the mix");
+        }
+        return contractIds.get(random.nextInt(contractIds.size()));
+    }
+}
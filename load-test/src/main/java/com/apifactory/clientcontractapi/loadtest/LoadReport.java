@@ -0,0 +1,143 @@
+package com.apifactory.clientcontractapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies (HdrHistogram, microseconds, 3 significant digits) and errors of each operation,
+ * printed as a table and written as JSON at the end of the run.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] PERCENTILE_LABELS = { "p50", "p90", "p99", "p99.9" };
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Histogram total = new Histogram(3);
+    private long totalErrors;
+
+    public LoadReport(Iterable<Operation> operations) {
+        for (Operation operation : operations) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Records one request; safe to call from any thread.
+     *
+     * @param latencyNanos time from the intended start of the request to its response
+     * @param success      false for a transport error or a non 2xx status
+     */
+    public void record(Operation operation, long latencyNanos, boolean success) {
+        recorders.get(operation).recordValue(Math.max(1, latencyNanos / 1_000));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Collects the recorded requests; call once the workers stopped.
+     */
+    public void close() {
+        recorders.forEach((operation, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            histograms.put(operation, histogram);
+            total.add(histogram);
+        });
+        totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long totalCount() {
+        return total.getTotalCount();
+    }
+
+    public double errorRate() {
+        return total.getTotalCount() == 0 ? 0 : (double) totalErrors / total.getTotalCount();
+    }
+
+    /** 99th percentile of all requests, in milliseconds. */
+    public double p99Millis() {
+        return total.getValueAtPercentile(99) / 1_000.0;
+    }
+
+    /**
+     * Prints one line per operation plus the total: count, errors, throughput and latency percentiles.
+     *
+     * @param measured length of the measurement phase
+     */
+    public void print(Duration measured) {
+        System.out.printf("%n%-22s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        histograms.forEach((operation, histogram) ->
+                printLine(operation.label(), histogram, errors.get(operation).sum(), measured));
+        printLine("total", total, totalErrors, measured);
+    }
+
+    /**
+     * Writes the configuration and the results as JSON, to compare runs between versions.
+     */
+    public void write(Path file, LoadTestConfig config, Duration measured) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode root = mapper.createObjectNode();
+        root.putObject("config")
+                .put("baseUrl", config.baseUrl())
+                .put("clients", config.clients())
+                .put("contracts", config.contracts())
+                .put("concurrency", config.concurrency())
+                .put("rate", config.rate())
+                .put("warmupSeconds", config.warmup().toSeconds())
+                .put("durationSeconds", config.duration().toSeconds())
+                .put("seed", config.seed())
+                .put("mix", config.mixDescription());
+        ObjectNode operations = root.putObject("operations");
+        histograms.forEach((operation, histogram) ->
+                operations.set(operation.label(), toJson(mapper, histogram, errors.get(operation).sum(), measured)));
+        root.set("total", toJson(mapper, total, totalErrors, measured));
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        mapper.writeValue(file.toFile(), root);
+    }
+
+    private static void printLine(String label, Histogram histogram, long errorCount, Duration measured) {
+        System.out.printf("%-22s %9d %8d %9.1f", label, histogram.getTotalCount(), errorCount,
+                throughput(histogram, measured));
+        for (double percentile : PERCENTILES) {
+            System.out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1_000.0);
+        }
+        System.out.printf(" %9.2f%n", histogram.getMaxValue() / 1_000.0);
+    }
+
+    private static ObjectNode toJson(ObjectMapper mapper, Histogram histogram, long errorCount, Duration measured) {
+        ObjectNode node = mapper.createObjectNode()
+                .put("count", histogram.getTotalCount())
+                .put("errors", errorCount)
+                .put("throughput", throughput(histogram, measured));
+        ObjectNode latencies = node.putObject("latencyMillis");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            latencies.put(PERCENTILE_LABELS[i], histogram.getValueAtPercentile(PERCENTILES[i]) / 1_000.0);
+        }
+        latencies.put("max", histogram.getMaxValue() / 1_000.0);
+        return node;
+    }
+
+    private static double throughput(Histogram histogram, Duration measured) {
+        return histogram.getTotalCount() / (measured.toNanos() / 1e9);
+    }
+}
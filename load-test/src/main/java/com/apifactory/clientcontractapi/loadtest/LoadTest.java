@@ -0,0 +1,203 @@
+package com.apifactory.clientcontractapi.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of a running API instance:
+ * 1. logs in through /api/auth/login,
+ * 2. seeds {@code clients} persons and {@code contracts} contracts (batch endpoint),
+ * 3. runs the mixed workload with {@code concurrency} users for the warmup, then for the measured duration,
+ * 4. prints throughput and latency percentiles per operation and writes them as JSON.
+ * <p>
+ * With a target {@code rate}, requests are scheduled at fixed intervals and latencies are measured from the time a
+ * request should have been sent: when the API falls behind, the queueing delay is part of the reported latency
+ * instead of silently lowering the request rate.
+ * <p>
+ * Exits with status 1 when the error rate or the p99 latency exceed the configured limits.
+ */
+public final class LoadTest {
+
+    private static final int CONTRACT_BATCH_SIZE = 1000;
+
+    private final LoadTestConfig config;
+    private final ApiClient api;
+    private final ExecutorService executor;
+
+    private LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.api = new ApiClient(config.baseUrl());
+        this.executor = Executors.newFixedThreadPool(config.concurrency());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LoadTest loadTest = new LoadTest(config);
+        boolean passed;
+        try {
+            passed = loadTest.run();
+        } finally {
+            loadTest.executor.shutdownNow();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        api.login(config.username(), config.password());
+        System.out.printf("Logged in to %s as %s%n", config.baseUrl(), config.username());
+
+        Dataset data = seed();
+
+        System.out.printf("Running %s with %d users%s: %s warmup, %s measured%n", config.mixDescription(), config.concurrency(),
+                config.rate() > 0 ? " at " + config.rate() + " req/s" : "", format(config.warmup()), format(config.duration()));
+        LoadReport report = new LoadReport(config.mix().keySet());
+        long start = System.nanoTime();
+        long measureStart = start + config.warmup().toNanos();
+        long end = measureStart + config.duration().toNanos();
+        List<Callable<Void>> users = new ArrayList<>();
+        for (int user = 0; user < config.concurrency(); user++) {
+            int index = user;
+            users.add(() -> {
+                runUser(index, data, report, start, measureStart, end);
+                return null;
+            });
+        }
+        awaitAll(executor.invokeAll(users));
+        report.close();
+
+        report.print(config.duration());
+        report.write(config.result(), config, config.duration());
+        System.out.printf("%nResults written to %s%n", config.result().toAbsolutePath());
+        return checkLimits(report);
+    }
+
+    /**
+     * Creates the clients (one request each, in parallel), then their contracts in successive NDJSON batches.
+     */
+    private Dataset seed() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        long start = System.nanoTime();
+        List<Callable<UUID>> clientTasks = new ArrayList<>();
+        for (int index = 0; index < config.clients(); index++) {
+            int clientIndex = index;
+            clientTasks.add(() -> api.createPerson(runId, clientIndex));
+        }
+        List<UUID> clientIds = awaitAll(executor.invokeAll(clientTasks));
+        System.out.printf("Seeded %d clients in %d ms%n", clientIds.size(), elapsedMillis(start));
+
+        // One batch at a time: each batch updates the running totals of all the clients, concurrent ones would wait on each other
+        start = System.nanoTime();
+        List<Long> contractIds = new ArrayList<>();
+        for (int from = 0; from < config.contracts(); from += CONTRACT_BATCH_SIZE) {
+            contractIds.addAll(api.createContracts(clientIds, from, Math.min(CONTRACT_BATCH_SIZE, config.contracts() - from)));
+        }
+        System.out.printf("Seeded %d contracts in %d ms%n", contractIds.size(), elapsedMillis(start));
+
+        return new Dataset(List.copyOf(clientIds), List.copyOf(contractIds));
+    }
+
+    /**
+     * Loop of one simulated user: picks an operation, sends it and waits for the response, until the end of the run.
+     */
+    private void runUser(int user, Dataset data, LoadReport report, long start, long measureStart, long end) {
+        Random random = new Random(config.seed() + user);
+        Operation[] operations = config.mix().keySet().toArray(Operation[]::new);
+        int[] cumulativeWeights = cumulativeWeights(config.mix(), operations);
+        // Each user sends concurrency/rate seconds apart; users are offset to spread the requests
+        long interval = config.rate() > 0 ? (long) (config.concurrency() * 1e9 / config.rate()) : 0;
+        long intended = start + interval * user / config.concurrency();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            long now = System.nanoTime();
+            if (interval == 0) {
+                intended = now;
+            } else if (intended > now) {
+                LockSupport.parkNanos(intended - now);
+            }
+            if (intended >= end) {
+                return;
+            }
+
+            Operation operation = pick(operations, cumulativeWeights, random);
+            boolean success;
+            try {
+                int status = api.execute(operation.request(api, data, random));
+                success = status / 100 == 2;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (intended >= measureStart) {
+                report.record(operation, System.nanoTime() - intended, success);
+            }
+            intended += interval;
+        }
+    }
+
+    private boolean checkLimits(LoadReport report) {
+        boolean passed = true;
+        if (report.totalCount() == 0) {
+            System.out.println("FAILED: no request completed during the measured duration");
+            passed = false;
+        }
+        if (report.errorRate() > config.maxErrorRate()) {
+            System.out.printf("FAILED: error rate %.2f%% above %.2f%%%n", report.errorRate() * 100, config.maxErrorRate() * 100);
+            passed = false;
+        }
+        if (config.maxP99() > 0 && report.p99Millis() > config.maxP99()) {
+            System.out.printf("FAILED: p99 latency %.2f ms above %.2f ms%n", report.p99Millis(), config.maxP99());
+            passed = false;
+        }
+        return passed;
+    }
+
+    private static int[] cumulativeWeights(Map<Operation, Integer> mix, Operation[] operations) {
+        int[] cumulative = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static Operation pick(Operation[] operations, int[] cumulativeWeights, Random random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (draw >= cumulativeWeights[i]) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    private static <T> List<T> awaitAll(List<Future<T>> futures) throws InterruptedException, ExecutionException {
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /** Length of a phase, for log lines. */
+    static String format(Duration duration) {
+        return duration.toSeconds() + "s";
+    }
+}
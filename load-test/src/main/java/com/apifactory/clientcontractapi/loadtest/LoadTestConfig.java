@@ -0,0 +1,127 @@
+package com.apifactory.clientcontractapi.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Options of a load-test run, given as {@code name=value} arguments:
+ * <ul>
+ * <li>{@code baseUrl} (http://localhost:8080), {@code username} / {@code password} (superAdmin / admin123)</li>
+ * <li>{@code clients} (1000) and {@code contracts} (10000): data seeded before the run, contracts spread over the clients</li>
+ * <li>{@code concurrency} (10): number of simulated users, each sending one request at a time</li>
+ * <li>{@code rate} (0): total target requests per second, 0 to send as fast as responses come back</li>
+ * <li>{@code warmup} (10s) and {@code duration} (60s): the warmup is run but not reported</li>
+ * <li>{@code mix}: relative weight of each operation, e.g. {@code clients.get=30,contracts.total=20}</li>
+ * <li>{@code seed} (42): seed of the random choices, for repeatable runs</li>
+ * <li>{@code maxErrorRate} (0.01) and {@code maxP99} (0 ms = disabled): the run fails when exceeded</li>
+ * <li>{@code result} (target/load-result.json)</li>
+ * </ul>
+ */
+public record LoadTestConfig(
+        String baseUrl,
+        String username,
+        String password,
+        int clients,
+        int contracts,
+        int concurrency,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        long seed,
+        double maxErrorRate,
+        double maxP99,
+        Path result) {
+
+    private static final String DEFAULT_MIX =
+            "clients.list=10,clients.get=25,contracts.byClient=25,contracts.total=25,contracts.create=10,contracts.updateCost=5";
+
+    /**
+     * Parses the command line arguments, falling back to the defaults.
+     *
+     * @param args arguments of the form {@code name=value}
+     * @return the run configuration
+     * @throws IllegalArgumentException if an argument is unknown or malformed
+     */
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected name=value, got: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                options.getOrDefault("baseUrl", "http://localhost:8080"),
+                options.getOrDefault("username", "superAdmin"),
+                options.getOrDefault("password", "admin123"),
+                Integer.parseInt(options.getOrDefault("clients", "1000")),
+                Integer.parseInt(options.getOrDefault("contracts", "10000")),
+                Integer.parseInt(options.getOrDefault("concurrency", "10")),
+                Double.parseDouble(options.getOrDefault("rate", "0")),
+                parseDuration(options.getOrDefault("warmup", "10s")),
+                parseDuration(options.getOrDefault("duration", "60s")),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Double.parseDouble(options.getOrDefault("maxErrorRate", "0.01")),
+                Double.parseDouble(options.getOrDefault("maxP99", "0")),
+                Path.of(options.getOrDefault("result", "target/load-result.json")));
+
+        options.keySet().removeAll(List.of("baseUrl", "username", "password", "clients", "contracts",
+                "concurrency", "rate", "warmup", "duration", "mix", "seed", "maxErrorRate", "maxP99", "result"));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + options.keySet());
+        }
+        if (config.clients() < 1 || config.concurrency() < 1) {
+            throw new IllegalArgumentException("clients and concurrency must be at least 1");
+        }
+        return config;
+    }
+
+    /** The mix in the format of the {@code mix} option. */
+    public String mixDescription() {
+        return mix.entrySet().stream()
+                .map(entry -> entry.getKey().label() + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    /** Parses durations written as 500ms, 30s, 2m or 1h. */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Invalid duration (expected ms, s, m or h): " + value);
+        };
+    }
+
+    /** Parses {@code name=weight} pairs; operations not listed are not run. */
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry (expected name=weight): " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.byName(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix must contain at least one operation");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,87 @@
+package com.apifactory.clientcontractapi.loadtest;
+
+import java.math.BigDecimal;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Requests of the mixed workload. Each one targets a seeded client or contract picked at random.
+ */
+public enum Operation {
+
+    CLIENTS_LIST("clients.list") {
+        @Override
+        HttpRequest request(ApiClient api, Dataset data, Random random) {
+            return api.get("/api/clients?limit=50");
+        }
+    },
+    CLIENTS_GET("clients.get") {
+        @Override
+        HttpRequest request(ApiClient api, Dataset data, Random random) {
+            return api.get("/api/clients/" + data.randomClient(random));
+        }
+    },
+    CONTRACTS_BY_CLIENT("contracts.byClient") {
+        @Override
+        HttpRequest request(ApiClient api, Dataset data, Random random) {
+            return api.get("/api/contracts/client/" + data.randomClient(random));
+        }
+    },
+    CONTRACTS_TOTAL("contracts.total") {
+        @Override
+        HttpRequest request(ApiClient api, Dataset data, Random random) {
+            return api.get("/api/contracts/client/" + data.randomClient(random) + "/total");
+        }
+    },
+    CONTRACTS_CREATE("contracts.create") {
+        @Override
+        HttpRequest request(ApiClient api, Dataset data, Random random) {
+            return api.post("/api/contracts", ApiClient.contractJson(data.randomClient(random), randomAmount(random)));
+        }
+    },
+    CONTRACTS_UPDATE_COST("contracts.updateCost") {
+        @Override
+        HttpRequest request(ApiClient api, Dataset data, Random random) {
+            return api.put("/api/contracts/" + data.randomContract(random) + "/cost?newAmount=" + randomAmount(random));
+        }
+    };
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Builds the next request of this operation.
+     *
+     * @param api    the authenticated API client
+     * @param data   the seeded clients and contracts
+     * @param random the random source of the calling user
+     * @return the request to send
+     */
+    abstract HttpRequest request(ApiClient api, Dataset data, Random random);
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Retrieves an operation by its label.
+     *
+     * @param label the label used in the mix option, e.g. {@code clients.get}
+     * @return the matching operation
+     * @throws IllegalArgumentException if no operation has this label
+     */
+    public static Operation byName(String label) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.label.equals(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + label));
+    }
+
+    private static BigDecimal randomAmount(Random random) {
+        return BigDecimal.valueOf(10_000 + random.nextInt(990_000), 2); // 100.00 to 9999.99
+    }
+}
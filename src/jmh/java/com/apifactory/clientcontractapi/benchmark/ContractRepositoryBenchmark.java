@@ -0,0 +1,126 @@
+package com.apifactory.clientcontractapi.benchmark;
+
+import com.apifactory.clientcontractapi.ClientContractApiApplication;
+import com.apifactory.clientcontractapi.dto.contract.ContractResponse;
+import com.apifactory.clientcontractapi.model.Contract;
+import com.apifactory.clientcontractapi.repository.ContractRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Active contract queries of a client, against an in-memory H2 seeded with {@code contracts} rows
+ * (50 contracts per client, a third of them expired).
+ * Each invocation queries the next client, so the whole table is exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ContractRepositoryBenchmark {
+
+    private static final int CONTRACTS_PER_CLIENT = 50;
+
+    @Param({ "10000", "100000", "1000000" })
+    private int contracts;
+
+    private ConfigurableApplicationContext context;
+    private ContractRepository contractRepository;
+    private UUID[] clientIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // The full application (security needs the servlet context), on a random port
+        context = new SpringApplicationBuilder(ClientContractApiApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "backup.folder=target/jmh-backups",
+                        "logging.level.root=WARN")
+                .run();
+        contractRepository = context.getBean(ContractRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Contract> findActiveContractsByClientId() {
+        return contractRepository.findActiveContractsByClientId(nextClientId(), null);
+    }
+
+    @Benchmark
+    public List<ContractResponse> findActiveContractResponsesByClientId() {
+        return contractRepository.findActiveContractResponsesByClientId(nextClientId(), null);
+    }
+
+    @Benchmark
+    public BigDecimal sumActiveContractsByClientId() {
+        return contractRepository.sumActiveContractsByClientId(nextClientId());
+    }
+
+    private UUID nextClientId() {
+        next = (next + 1) % clientIds.length;
+        return clientIds[next];
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        int clients = contracts / CONTRACTS_PER_CLIENT;
+        jdbc.update("""
+                INSERT INTO client (id, name, email, phone, type)
+                SELECT RANDOM_UUID(7), 'Bench client ' || X, 'bench' || X || '@bench.local', '+41000000000', 'PERSON'
+                FROM SYSTEM_RANGE(1, %d)
+                """.formatted(clients));
+        jdbc.update("""
+                INSERT INTO person (id, birth_date)
+                SELECT id, DATE '1990-01-01' FROM client WHERE email LIKE 'bench%'
+                """);
+        // One contract out of three has expired, one has no end date, one ends in the future
+        jdbc.update("""
+                INSERT INTO contract (id, client_id, start_date, end_date, cost_amount, status, update_date)
+                SELECT NEXT VALUE FOR contract_seq, c.id,
+                       DATEADD(DAY, -400, CURRENT_TIMESTAMP),
+                       CASE MOD(r.X, 3)
+                           WHEN 0 THEN DATEADD(DAY, -r.X, CURRENT_TIMESTAMP)
+                           WHEN 1 THEN NULL
+                           ELSE DATEADD(DAY, r.X, CURRENT_TIMESTAMP)
+                       END,
+                       10 + MOD(r.X * 37, 990),
+                       CASE MOD(r.X, 3) WHEN 0 THEN 'EXPIRED' ELSE 'ACTIVE' END,
+                       DATEADD(DAY, -MOD(r.X, 365), CURRENT_TIMESTAMP)
+                FROM client c CROSS JOIN SYSTEM_RANGE(1, %d) r
+                WHERE c.email LIKE 'bench%%'
+                """.formatted(CONTRACTS_PER_CLIENT));
+        jdbc.execute("ANALYZE");
+        clientIds = jdbc.queryForList("SELECT id FROM client WHERE email LIKE 'bench%'", UUID.class)
+                .toArray(UUID[]::new);
+    }
+}
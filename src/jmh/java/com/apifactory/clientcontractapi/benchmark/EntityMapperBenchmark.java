@@ -0,0 +1,96 @@
+package com.apifactory.clientcontractapi.benchmark;
+
+import com.apifactory.clientcontractapi.dto.client.ClientResponse;
+import com.apifactory.clientcontractapi.dto.contract.ContractResponse;
+import com.apifactory.clientcontractapi.mapper.EntityMapper;
+import com.apifactory.clientcontractapi.model.Client;
+import com.apifactory.clientcontractapi.model.ClientType;
+import com.apifactory.clientcontractapi.model.Company;
+import com.apifactory.clientcontractapi.model.Contract;
+import com.apifactory.clientcontractapi.model.Person;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity → DTO conversion of the list endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMapperBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    private int size;
+
+    private List<Client> clients;
+    private List<Contract> contracts;
+
+    @Setup
+    public void setup() {
+        clients = new ArrayList<>(size);
+        contracts = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            Client client = i % 2 == 0 ? person(i) : company(i);
+            client.setId(UUID.randomUUID());
+            client.setName("Client " + i);
+            client.setEmail("client" + i + "@bench.local");
+            client.setPhone("+41000000000");
+            clients.add(client);
+
+            Contract contract = new Contract();
+            contract.setId((long) i);
+            contract.setClient(client);
+            contract.setStartDate(now.minusDays(i % 365));
+            contract.setEndDate(i % 3 == 0 ? null : now.plusDays(i % 365));
+            contract.setCostAmount(BigDecimal.valueOf(10 + i % 990));
+            contract.setUpdateDate(now);
+            contracts.add(contract);
+        }
+    }
+
+    @Benchmark
+    public List<ClientResponse> toClientResponseList() {
+        return EntityMapper.toClientResponseList(clients);
+    }
+
+    @Benchmark
+    public List<ContractResponse> toContractResponseList() {
+        return EntityMapper.toContractResponseList(contracts);
+    }
+
+    private static Person person(int i) {
+        Person person = new Person();
+        person.setType(ClientType.PERSON);
+        person.setBirthDate(LocalDate.of(1990, 1, 1).plusDays(i % 3650));
+        return person;
+    }
+
+    private static Company company(int i) {
+        Company company = new Company();
+        company.setType(ClientType.COMPANY);
+        company.setCompanyId("cmp-" + i);
+        return company;
+    }
+}
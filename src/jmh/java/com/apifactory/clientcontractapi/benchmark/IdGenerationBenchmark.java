@@ -0,0 +1,137 @@
+package com.apifactory.clientcontractapi.benchmark;
+
+import com.apifactory.clientcontractapi.model.TimeOrderedUuidGenerator;
+
+import org.h2.tools.RunScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput and on-disk size of the client and contract tables, depending on how client ids are generated:
+ * random UUIDs (version 4) or time-ordered UUIDs (version 7, {@link TimeOrderedUuidGenerator}).
+ * <p>
+ * Each invocation loads {@code rows} persons, each with one contract, into a new H2 file database created with the
+ * Flyway migrations, in JDBC batches like Hibernate does. Contract ids come from a counter, as handed out by the
+ * pooled-lo sequence optimizer. Table sizes (data plus indexes) and the database file size are printed after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IdGenerationBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({ "random", "timeOrdered" })
+    private String clientIds;
+
+    @Param({ "1000000" })
+    private int rows;
+
+    private Path folder;
+    private Connection connection;
+
+    @Setup(Level.Iteration)
+    public void createDatabase() throws IOException, SQLException {
+        folder = Files.createTempDirectory("id-benchmark");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + folder.resolve("db"), "sa", "");
+        try (Reader migration = new InputStreamReader(Objects.requireNonNull(
+                getClass().getResourceAsStream("/db/migration/V1__baseline.sql")), StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, migration);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @Benchmark
+    public void insertClientsWithContracts() throws SQLException {
+        boolean timeOrdered = "timeOrdered".equals(clientIds);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        long contractId = 1;
+        try (PreparedStatement client = connection.prepareStatement(
+                        "INSERT INTO client (id, name, email, phone, type) VALUES (?, ?, ?, '+33600000000', 'PERSON')");
+                PreparedStatement person = connection.prepareStatement(
+                        "INSERT INTO person (id, birth_date) VALUES (?, DATE '1990-01-01')");
+                PreparedStatement contract = connection.prepareStatement(
+                        "INSERT INTO contract (id, client_id, start_date, cost_amount, update_date) VALUES (?, ?, ?, ?, ?)")) {
+            for (int row = 1; row <= rows; row++) {
+                UUID id = timeOrdered ? TimeOrderedUuidGenerator.next() : UUID.randomUUID();
+                client.setObject(1, id);
+                client.setString(2, "Client " + row);
+                client.setString(3, "client" + row + "@bench.local");
+                client.addBatch();
+                person.setObject(1, id);
+                person.addBatch();
+                contract.setLong(1, contractId++);
+                contract.setObject(2, id);
+                contract.setTimestamp(3, now);
+                contract.setBigDecimal(4, BigDecimal.valueOf(row % 1000 + 1));
+                contract.setTimestamp(5, now);
+                contract.addBatch();
+
+                if (row % BATCH_SIZE == 0 || row == rows) {
+                    client.executeBatch();
+                    person.executeBatch();
+                    contract.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropDatabase() throws IOException, SQLException {
+        // Sizes are read after a compaction: right after the load, the store still counts pages waiting to be rewritten
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN COMPACT");
+        }
+        try (Connection reopened = DriverManager.getConnection("jdbc:h2:file:" + folder.resolve("db"), "sa", "");
+                Statement statement = reopened.createStatement()) {
+            System.out.printf("%n[clientIds=%s] client: %d MB, contract: %d MB, file: %d MB%n", clientIds,
+                    diskSpaceUsed(statement, "CLIENT") >> 20, diskSpaceUsed(statement, "CONTRACT") >> 20,
+                    Files.size(folder.resolve("db.mv.db")) >> 20);
+        }
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private static long diskSpaceUsed(Statement statement, String table) throws SQLException {
+        try (ResultSet result = statement.executeQuery("CALL DISK_SPACE_USED('" + table + "')")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
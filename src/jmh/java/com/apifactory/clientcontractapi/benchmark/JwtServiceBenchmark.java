@@ -0,0 +1,62 @@
+package com.apifactory.clientcontractapi.benchmark;
+
+import com.apifactory.clientcontractapi.security.JwtService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation, executed by the JWT filter on every authenticated request.
+ * A valid token is verified once then served from the verified-token cache;
+ * {@code isValidUncached} measures the full signature verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-of-at-least-32-bytes";
+
+    private JwtService jwtService;
+    private JwtService uncachedJwtService;
+    private String validToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(SECRET, 3_600_000, 10_000);
+        uncachedJwtService = new JwtService(SECRET, 3_600_000, 0);
+        validToken = jwtService.generateToken("superAdmin", List.of("ROLE_ADMIN"));
+        // Same header and payload, broken signature: parsed, then rejected
+        tamperedToken = validToken.substring(0, validToken.length() - 4) + "AAAA";
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return jwtService.isValid(validToken);
+    }
+
+    @Benchmark
+    public boolean isValidUncached() {
+        return uncachedJwtService.isValid(validToken);
+    }
+
+    @Benchmark
+    public boolean isValidWithBadSignature() {
+        return jwtService.isValid(tamperedToken);
+    }
+}
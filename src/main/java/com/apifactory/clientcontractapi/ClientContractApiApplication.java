@@ -2,12 +2,18 @@ package com.apifactory.clientcontractapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ClientContractApiApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ClientContractApiApplication.class, args);
+		SpringApplication application = new SpringApplication(ClientContractApiApplication.class);
+		// Records the startup steps (bean creations, database initialization...), served by /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 	}
 
 }
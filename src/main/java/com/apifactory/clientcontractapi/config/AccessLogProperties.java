@@ -0,0 +1,60 @@
+package com.apifactory.clientcontractapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Access log settings ({@code logging.access.*}), see AccessLogFilter.
+ * Sample rates are between 0 (never logged) and 1 (always logged), keyed by route pattern
+ * (e.g. {@code /api/clients/{id}}); errors and slow requests are always logged.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "logging.access")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+    private double defaultSampleRate = 1.0;
+    private Duration slowThreshold = Duration.ofMillis(500);
+    private Map<String, Double> sampleRates = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getDefaultSampleRate() {
+        return defaultSampleRate;
+    }
+
+    public void setDefaultSampleRate(double defaultSampleRate) {
+        this.defaultSampleRate = defaultSampleRate;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public Map<String, Double> getSampleRates() {
+        return sampleRates;
+    }
+
+    public void setSampleRates(Map<String, Double> sampleRates) {
+        this.sampleRates = sampleRates;
+    }
+
+    /** Sample rate of a route, the default one when the route has none. */
+    public double sampleRateOf(String route) {
+        return sampleRates.getOrDefault(route, defaultSampleRate);
+    }
+}
@@ -0,0 +1,86 @@
+package com.apifactory.clientcontractapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Two connection pools: "write" ({@code spring.datasource}) and "read" ({@code spring.datasource.read}).
+ * <p>
+ * The application uses a routing data source: connections of {@code @Transactional(readOnly = true)} transactions
+ * come from the read pool, all the others from the write pool. Read traffic can be sized (and later pointed
+ * to a replica) independently of the writes, and never waits for a connection held by a write.
+ * The read pool targets the same database unless {@code spring.datasource.read.url} is set; with a replica,
+ * a read right after a write may not see it yet.
+ * <p>
+ * The route is chosen when a transaction runs its first statement, and an EntityManager keeps that connection
+ * until it is closed: {@code spring.jpa.open-in-view} is disabled so that each transaction of a request gets
+ * its own EntityManager, and a write following a read-only lookup does not run on the read connection.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    enum Route { WRITE, READ }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("write");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.read")
+    public DataSourceProperties readDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.read.hikari")
+    public HikariDataSource readDataSource(@Qualifier("readDataSourceProperties") DataSourceProperties readDataSourceProperties) {
+        HikariDataSource dataSource = readDataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("read");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * The data source used by JPA, Flyway and JDBC code.
+     * Lazy proxy: the physical connection is only fetched on the first statement, once the transaction
+     * (and its read-only flag) has started, instead of when the transaction manager begins it.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") DataSource writeDataSource,
+            @Qualifier("readDataSource") DataSource readDataSource) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.WRITE;
+            }
+        };
+        routing.setTargetDataSources(Map.of(Route.WRITE, writeDataSource, Route.READ, readDataSource));
+        routing.setDefaultTargetDataSource(writeDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
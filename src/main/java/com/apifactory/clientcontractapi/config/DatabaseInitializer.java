@@ -1,69 +1,128 @@
 package com.apifactory.clientcontractapi.config;
 
-import jakarta.annotation.PostConstruct;
+import com.apifactory.clientcontractapi.service.BackupService;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
-import java.io.File;
-import java.sql.Connection;
-import java.sql.ResultSet;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
- * Handles initial database population:
- * - Executes data.sql only if DB is empty and no backup is found.
+ * Single database initialization step, run once on startup:
+ * - restores the backup named by {@code backup.restore} (a file name or "latest") if set,
+ * - otherwise leaves existing data untouched,
+ * - otherwise restores the latest backup (backups enabled), faster than data.sql,
+ * - otherwise executes data.sql.
+ * <p>
+ * Runs as the first ApplicationRunner, before the application reports ready. Runners are called once the context
+ * is refreshed: the Flyway migrations ran during the refresh, and the deferred JPA repositories were initialised on
+ * the refresh event, which waits for the background Hibernate bootstrap (and its schema validation) to complete.
+ * Each phase is recorded as a startup step, see /actuator/startup.
+ * Restores and data.sql bypass Hibernate, so the second-level cache is emptied after them.
+ * <p>
+ * A restore brings back the schema of its backup, with its migration history: the migrations are applied again
+ * after it, so an older backup is upgraded to the schema Hibernate validated. A failed restore stops the startup,
+ * the database was dropped before the script ran.
  */
 @Component
-public class DatabaseInitializer {
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DatabaseInitializer implements ApplicationRunner {
 
-    private static final Logger logger = LoggerFactory.getLogger(BackupConfig.class);
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseInitializer.class);
 
     private final DataSource dataSource;
+    private final Flyway flyway;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BackupService backupService;
+    private final ApplicationStartup applicationStartup;
+    private final String restore;
 
-    @Value("${backup.folder:./backups}")
-    private String backupFolder;
-
-    public DatabaseInitializer(DataSource dataSource) {
+    public DatabaseInitializer(DataSource dataSource, Flyway flyway, EntityManagerFactory entityManagerFactory,
+            BackupService backupService, ApplicationStartup applicationStartup, @Value("${backup.restore:}") String restore) {
         this.dataSource = dataSource;
+        this.flyway = flyway;
+        this.entityManagerFactory = entityManagerFactory;
+        this.backupService = backupService;
+        this.applicationStartup = applicationStartup;
+        this.restore = restore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        StartupStep step = applicationStartup.start("clientcontractapi.database.init");
+        String outcome = initialize();
+        entityManagerFactory.getCache().evictAll();
+        step.tag("outcome", outcome).end();
+        logger.info("✅ Database initialization: {} in {} ms", outcome, (System.nanoTime() - start) / 1_000_000);
     }
 
-    @PostConstruct
-    @Transactional
-    public void initializeDatabase() {
-        try (Connection conn = dataSource.getConnection()) {
-            // Check if backup exists
-            File backupDir = new File(backupFolder);
-            boolean backupExists = backupDir.exists() &&
-                    backupDir.listFiles((dir, name) -> name.endsWith(".sql")).length > 0;
+    private String initialize() {
+        // Explicit restore request: replaces the current data
+        if (!restore.isBlank()) {
+            restore(backupService.getBackup(restore));
+            return "restored " + restore;
+        }
 
-            if (backupExists) {
-                logger.info("Backup detected — skipping data.sql initialization.");
-                return;
-            }
+        // If DB already has clients: skip data.sql
+        if (hasClients()) {
+            return "existing data kept";
+        }
 
-            // Check if database already has data
-            ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM CLIENT");
-            rs.next();
-            long count = rs.getLong(1);
-            if (count > 0) {
-                logger.info("Existing data found — skipping data.sql initialization.");
-                return;
-            }
+        // Empty DB: the latest backup is both more recent and faster to load than data.sql
+        List<Path> backups = backupService.isEnabled() ? backupService.listBackups() : List.of();
+        if (!backups.isEmpty()) {
+            restore(backups.get(0));
+            return "restored " + backups.get(0).getFileName();
+        }
 
-            // Execute data.sql manually
-            logger.info("No data or backup found — initializing database from data.sql...");
-            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("data.sql"));
-            populator.execute(dataSource);
+        // No data and no restore performed => run data.sql
+        seedFromDataSql();
+        return "seeded from data.sql";
+    }
+
+    private boolean hasClients() {
+        StartupStep step = applicationStartup.start("clientcontractapi.database.init.check");
+        try {
+            Integer count = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM CLIENT", Integer.class);
+            return count != null && count > 0;
+        } finally {
+            step.end();
+        }
+    }
+
+    private void restore(Path backup) {
+        StartupStep step = applicationStartup.start("clientcontractapi.database.init.restore");
+        try {
+            backupService.restore(backup);
+            int applied = flyway.migrate().migrationsExecuted; // backups taken before the latest migrations
+            step.tag("migrations", String.valueOf(applied));
+        } finally {
+            step.tag("backup", backup.getFileName().toString()).end();
+        }
+    }
 
-            logger.info("✅ Database populated successfully from data.sql.");
-        } catch (Exception e) {
-            logger.error("❌ Failed to initialize database: " + e.getMessage());
+    private void seedFromDataSql() {
+        StartupStep step = applicationStartup.start("clientcontractapi.database.init.seed");
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("data.sql")).execute(dataSource);
+        } finally {
+            step.end();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.apifactory.clientcontractapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.List;
+
+/**
+ * Publishes the JCache statistics of the "client" second-level cache region as {@code cache.*} metrics
+ * ({@code cache.gets} hit/miss, {@code cache.puts}, {@code cache.evictions}, {@code cache.removals}, tag {@code cache=client}).
+ * <p>
+ * Hibernate's own statistics count the hits and misses of each region, not the entries evicted by its size bound:
+ * a growing eviction count means {@code maximum.size} in hibernate-cache.conf is smaller than the clients in use.
+ * The statistics of the region are enabled there ({@code monitoring.statistics}). Bound once the singletons are
+ * created, when the deferred Hibernate bootstrap has completed.
+ */
+@Configuration
+public class SecondLevelCacheMetricsConfig implements SmartInitializingSingleton {
+
+    static final String CLIENT_REGION = "client";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    public SecondLevelCacheMetricsConfig(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        CacheManager cacheManager = ((JCacheRegionFactory) sessionFactory.getCache().getRegionFactory()).getCacheManager();
+        Cache<Object, Object> cache = cacheManager.getCache(CLIENT_REGION);
+        JCacheMetrics.monitor(meterRegistry, cache, List.of());
+    }
+}
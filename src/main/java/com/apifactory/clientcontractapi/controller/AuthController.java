@@ -1,6 +1,7 @@
 package com.apifactory.clientcontractapi.controller;
 
 import com.apifactory.clientcontractapi.security.JwtService;
+import com.apifactory.clientcontractapi.security.TokenDenylist;
 import com.apifactory.clientcontractapi.web.LoginRequest;
 import com.apifactory.clientcontractapi.web.LoginResponse;
 
@@ -8,9 +9,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -19,10 +24,12 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final TokenDenylist tokenDenylist;
 
-    public AuthController(AuthenticationManager authenticationManager, JwtService jwtService) {
+    public AuthController(AuthenticationManager authenticationManager, JwtService jwtService, TokenDenylist tokenDenylist) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.tokenDenylist = tokenDenylist;
     }
 
     /**
@@ -30,16 +37,35 @@ public class AuthController {
      */
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
-        logger.info("Attempting login for username {}", request.getUsername());
+        logger.debug("Attempting login for username {}", request.getUsername());
 
         // Authenticate credentials (will throw on bad credentials)
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
         );
 
-        // Generate token if authentication succeeds
-        String token = jwtService.generateToken(request.getUsername());
+        // Generate token if authentication succeeds, its roles are embedded as claim
+        List<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        String token = jwtService.generateToken(authentication.getName(), authorities);
         logger.info("Login success for username {}", request.getUsername());
         return ResponseEntity.ok(new LoginResponse(token, "Bearer"));
     }
+
+    /**
+     * Revokes the Bearer token of the request until it expires.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            jwtService.verify(authHeader.substring(7).trim())
+                    .filter(claims -> claims.getId() != null)
+                    .ifPresent(claims -> {
+                        tokenDenylist.revoke(claims.getId(), claims.getExpiration());
+                        logger.info("Token revoked for username {}", claims.getSubject());
+                    });
+        }
+        return ResponseEntity.noContent().build();
+    }
 }
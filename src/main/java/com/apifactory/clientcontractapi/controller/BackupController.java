@@ -0,0 +1,72 @@
+package com.apifactory.clientcontractapi.controller;
+
+import com.apifactory.clientcontractapi.dto.backup.BackupResponse;
+import com.apifactory.clientcontractapi.service.BackupService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * REST controller for database backups (admin only).
+ * Backups are restored at startup, see DatabaseInitializer.
+ */
+@RestController
+@RequestMapping("/api/admin/backups")
+public class BackupController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupController.class);
+
+    private final BackupService backupService;
+
+    public BackupController(BackupService backupService) {
+        this.backupService = backupService;
+    }
+
+    /**
+     * List the backups, most recent first.
+     */
+    @GetMapping
+    public ResponseEntity<List<BackupResponse>> getBackups() {
+        logger.debug("GET /api/admin/backups - Listing backups");
+        return ResponseEntity.ok(backupService.listBackups().stream().map(BackupController::toResponse).toList());
+    }
+
+    /**
+     * Back up the database now and wait for the backup.
+     * Returns 201 with the new backup, or 200 with the latest one when nothing changed since.
+     */
+    @PostMapping
+    public ResponseEntity<BackupResponse> createBackup() throws InterruptedException {
+        logger.info("POST /api/admin/backups - Backup requested");
+        try {
+            BackupService.BackupRun run = backupService.requestBackup().get();
+            return ResponseEntity.status(run.created() ? HttpStatus.CREATED : HttpStatus.OK).body(toResponse(run.file()));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Backup failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static BackupResponse toResponse(Path file) {
+        BackupResponse response = new BackupResponse();
+        response.setName(file.getFileName().toString());
+        try {
+            response.setSizeBytes(Files.size(file));
+            response.setCreatedAt(LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return response;
+    }
+}
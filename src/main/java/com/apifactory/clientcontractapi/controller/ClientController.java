@@ -1,16 +1,26 @@
 package com.apifactory.clientcontractapi.controller;
 
+import com.apifactory.clientcontractapi.dto.CursorPage;
+import com.apifactory.clientcontractapi.dto.client.ClientDeletionResponse;
 import com.apifactory.clientcontractapi.dto.client.ClientRequest;
 import com.apifactory.clientcontractapi.dto.client.ClientResponse;
 import com.apifactory.clientcontractapi.mapper.EntityMapper;
 import com.apifactory.clientcontractapi.model.Client;
+import com.apifactory.clientcontractapi.service.ClientDeletionJob;
+import com.apifactory.clientcontractapi.service.ClientDeletionService;
 import com.apifactory.clientcontractapi.service.ClientService;
+import com.apifactory.clientcontractapi.web.CursorCodec;
+import com.apifactory.clientcontractapi.web.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,9 +34,14 @@ public class ClientController {
     private static final Logger logger = LoggerFactory.getLogger(ClientController.class);
 
     private final ClientService clientService;
+    private final ClientDeletionService clientDeletionService;
+    private final ObjectMapper objectMapper;
 
-    public ClientController(ClientService clientService) {
+    public ClientController(ClientService clientService, ClientDeletionService clientDeletionService,
+            ObjectMapper objectMapper) {
         this.clientService = clientService;
+        this.clientDeletionService = clientDeletionService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -34,7 +49,7 @@ public class ClientController {
      */
     @PostMapping
     public ResponseEntity<ClientResponse> createClient(@RequestBody ClientRequest request) {
-        logger.info("POST /api/clients - Creating new client {}", request.getName());
+        logger.debug("POST /api/clients - Creating new client {}", request.getName());
         Client client = EntityMapper.toClientEntity(request);
         Client saved = clientService.createClient(client);
         return ResponseEntity.ok(EntityMapper.toClientResponse(saved));
@@ -45,7 +60,7 @@ public class ClientController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<ClientResponse> updateClient(@PathVariable UUID id, @RequestBody ClientRequest request) {
-        logger.info("PUT /api/clients/{} - Updating client", id);
+        logger.debug("PUT /api/clients/{} - Updating client", id);
         Client client = EntityMapper.toClientEntity(request);
         Client updated = clientService.updateClient(id, client);
         return ResponseEntity.ok(EntityMapper.toClientResponse(updated));
@@ -53,22 +68,59 @@ public class ClientController {
 
     /**
      * Delete a client and close their active contracts.
+     * Returns 204 once deleted, or 202 with the background deletion for clients with many contracts.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteClient(@PathVariable UUID id) {
-        logger.info("DELETE /api/clients/{} - Deleting client", id);
-        clientService.deleteClient(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<ClientDeletionResponse> deleteClient(@PathVariable UUID id) {
+        logger.debug("DELETE /api/clients/{} - Deleting client", id);
+        return clientDeletionService.deleteClient(id)
+                .map(job -> ResponseEntity.accepted()
+                        .location(URI.create("/api/clients/deletions/" + job.getId()))
+                        .body(toResponse(job)))
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     /**
-     * Get all clients.
+     * Get the status of a background client deletion.
      */
-    @GetMapping
-    public ResponseEntity<List<ClientResponse>> getAllClients() {
-        logger.info("GET /api/clients - Fetching all clients");
-        List<ClientResponse> response = EntityMapper.toClientResponseList(clientService.getAllClients());
-        return ResponseEntity.ok(response);
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<ClientDeletionResponse> getDeletion(@PathVariable UUID jobId) {
+        logger.debug("GET /api/clients/deletions/{} - Fetching deletion status", jobId);
+        return clientDeletionService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(toResponse(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get all clients, one page at a time (keyset pagination on id).
+     * Pass the returned {@code nextCursor} to fetch the following page.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CursorPage<ClientResponse>> getAllClients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
+
+        logger.debug("GET /api/clients?cursor={}&limit={} - Fetching clients page", cursor, limit);
+        UUID afterId = cursor == null ? null : CursorCodec.decode(cursor, 1, parts -> UUID.fromString(parts[0]));
+        int pageSize = CursorPage.clampLimit(limit);
+
+        List<Client> clients = clientService.getClientsAfter(afterId, pageSize + 1);
+        return ResponseEntity.ok(CursorPage.of(clients, pageSize, EntityMapper::toClientResponse,
+                client -> CursorCodec.encode(client.getId())));
+    }
+
+    /**
+     * Stream all clients as NDJSON (Accept: application/x-ndjson).
+     * Rows are written while they are read from the database, so the whole table is never held in memory.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllClients() {
+        logger.debug("GET /api/clients (ndjson) - Streaming all clients");
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            clientService.streamAllClients(client -> writer.write(EntityMapper.toClientResponse(client)));
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
@@ -76,8 +128,21 @@ public class ClientController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<ClientResponse> getClientById(@PathVariable UUID id) {
-        logger.info("GET /api/clients/{} - Fetching client", id);
+        logger.debug("GET /api/clients/{} - Fetching client", id);
         Client client = clientService.getClientById(id);
         return ResponseEntity.ok(EntityMapper.toClientResponse(client));
     }
+
+    private static ClientDeletionResponse toResponse(ClientDeletionJob job) {
+        ClientDeletionResponse response = new ClientDeletionResponse();
+        response.setId(job.getId());
+        response.setClientId(job.getClientId());
+        response.setStatus(job.getStatus().name());
+        response.setContractCount(job.getContractCount());
+        response.setContractsClosed(job.getContractsClosed());
+        response.setSubmittedAt(job.getSubmittedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setError(job.getError());
+        return response;
+    }
 }
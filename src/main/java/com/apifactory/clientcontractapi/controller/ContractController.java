@@ -1,21 +1,39 @@
 package com.apifactory.clientcontractapi.controller;
 
+import com.apifactory.clientcontractapi.dto.CursorPage;
+import com.apifactory.clientcontractapi.dto.contract.ClientTotalResponse;
+import com.apifactory.clientcontractapi.dto.contract.ContractBatchResponse;
 import com.apifactory.clientcontractapi.dto.contract.ContractRequest;
 import com.apifactory.clientcontractapi.dto.contract.ContractResponse;
+import com.apifactory.clientcontractapi.dto.contract.ContractTotalsRequest;
 import com.apifactory.clientcontractapi.mapper.EntityMapper;
 import com.apifactory.clientcontractapi.model.Client;
+import com.apifactory.clientcontractapi.model.ClientType;
 import com.apifactory.clientcontractapi.model.Contract;
 import com.apifactory.clientcontractapi.service.ClientService;
+import com.apifactory.clientcontractapi.service.ContractBatchService;
 import com.apifactory.clientcontractapi.service.ContractService;
+import com.apifactory.clientcontractapi.web.CursorCodec;
+import com.apifactory.clientcontractapi.web.NdjsonWriter;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,10 +48,15 @@ public class ContractController {
 
     private final ContractService contractService;
     private final ClientService clientService;
+    private final ContractBatchService contractBatchService;
+    private final ObjectMapper objectMapper;
 
-    public ContractController(ContractService contractService, ClientService clientService) {
+    public ContractController(ContractService contractService, ClientService clientService,
+            ContractBatchService contractBatchService, ObjectMapper objectMapper) {
         this.contractService = contractService;
         this.clientService = clientService;
+        this.contractBatchService = contractBatchService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -41,19 +64,33 @@ public class ContractController {
      */
     @PostMapping
     public ResponseEntity<ContractResponse> createContract(@RequestBody ContractRequest request) {
-        logger.info("POST /api/contracts - Creating contract for client {}", request.getClientId());
+        logger.debug("POST /api/contracts - Creating contract for client {}", request.getClientId());
         Client client = clientService.getClientById(request.getClientId());
         Contract contract = EntityMapper.toContractEntity(request, client);
         Contract saved = contractService.createContract(contract);
         return ResponseEntity.ok(EntityMapper.toContractResponse(saved));
     }
 
+    /**
+     * Create many contracts at once, from a JSON array or an NDJSON stream (one contract per line).
+     * The body is parsed while it is ingested; returns one result per row.
+     */
+    @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<ContractBatchResponse> createContracts(HttpServletRequest request) throws IOException {
+        logger.debug("POST /api/contracts/batch - Ingesting contracts ({})", request.getContentType());
+        // readValues iterates the elements of a root JSON array as well as a sequence of root values (NDJSON)
+        try (MappingIterator<ContractRequest> rows = objectMapper.readerFor(ContractRequest.class)
+                .readValues(request.getInputStream())) {
+            return ResponseEntity.ok(contractBatchService.createContracts(rows));
+        }
+    }
+
     /**
      * Update contract cost amount.
      */
     @PutMapping("/{id}/cost")
     public ResponseEntity<ContractResponse> updateCostAmount(@PathVariable Long id, @RequestParam BigDecimal newAmount) {
-        logger.info("PUT /api/contracts/{}/cost - Updating cost to {}", id, newAmount);
+        logger.debug("PUT /api/contracts/{}/cost - Updating cost to {}", id, newAmount);
         Contract updated = contractService.updateCostAmount(id, newAmount);
         return ResponseEntity.ok(EntityMapper.toContractResponse(updated));
     }
@@ -66,20 +103,177 @@ public class ContractController {
             @PathVariable UUID clientId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDateTime updateDate) {
 
-        logger.info("GET /api/contracts/client/{}?updateDate={} - Fetching active contracts", clientId, updateDate);
-        List<ContractResponse> response = EntityMapper.toContractResponseList(
-                contractService.getActiveContracts(clientId, updateDate)
-        );
+        logger.debug("GET /api/contracts/client/{}?updateDate={} - Fetching active contracts", clientId, updateDate);
+        List<ContractResponse> response = contractService.getActiveContractResponses(clientId, updateDate);
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Get total active contract amount for one client.
+     * Get total active contract amount for one client, now or at a past instant ({@code at}, ISO date-time).
      */
     @GetMapping("/client/{clientId}/total")
-    public ResponseEntity<BigDecimal> getTotalActiveContractAmount(@PathVariable UUID clientId) {
-        logger.info("GET /api/contracts/client/{}/total - Fetching total active amount", clientId);
-        BigDecimal total = contractService.getTotalActiveContractAmount(clientId);
+    public ResponseEntity<BigDecimal> getTotalActiveContractAmount(
+            @PathVariable UUID clientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+
+        logger.debug("GET /api/contracts/client/{}/total?at={} - Fetching total active amount", clientId, at);
+        BigDecimal total = at == null
+                ? contractService.getTotalActiveContractAmount(clientId)
+                : contractService.getTotalActiveContractAmountAt(clientId, at);
         return ResponseEntity.ok(total);
     }
+
+    /**
+     * Get the total active contract amount of many clients in one request: the given {@code clientIds},
+     * all the clients of a {@code type}, or the given clients of that type. Unknown clients are left out.
+     */
+    @PostMapping(value = "/totals", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ClientTotalResponse>> getTotalActiveContractAmounts(@RequestBody ContractTotalsRequest request) {
+        logger.debug("POST /api/contracts/totals - Fetching totals of {} clients (type {})",
+                request.getClientIds() == null ? 0 : request.getClientIds().size(), request.getType());
+        requireSelector(request);
+        List<ClientTotalResponse> totals = new ArrayList<>();
+        contractService.streamActiveTotals(request.getClientIds(), request.getType(), totals::add);
+        return ResponseEntity.ok(totals);
+    }
+
+    /**
+     * Stream the totals of many clients as NDJSON (Accept: application/x-ndjson), one line per client
+     * sent as soon as it is computed.
+     */
+    @PostMapping(value = "/totals", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTotalActiveContractAmounts(@RequestBody ContractTotalsRequest request) {
+        logger.debug("POST /api/contracts/totals (ndjson) - Streaming totals of {} clients (type {})",
+                request.getClientIds() == null ? 0 : request.getClientIds().size(), request.getType());
+        requireSelector(request); // before the response is committed
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            contractService.streamActiveTotals(request.getClientIds(), request.getType(), writer::write);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Global change feed: all contracts created or modified after a position, ordered by (updateDate, id).
+     * Start with {@code since} (exclusive, ISO date-time) or from the beginning, then pass the returned
+     * {@code nextCursor}. A page smaller than {@code limit} means the consumer is caught up: keep its
+     * {@code nextCursor} to poll again later.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CursorPage<ContractResponse>> getChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
+
+        logger.debug("GET /api/contracts/changes?cursor={}&since={}&limit={} - Fetching changes", cursor, since, limit);
+        FeedPosition after = FeedPosition.of(cursor, since);
+        LocalDateTime until = contractService.changeFeedHorizon();
+        int pageSize = CursorPage.clampLimit(limit);
+
+        List<ContractResponse> changes = contractService.getChanges(after.date(), after.id(), until, pageSize + 1);
+        if (changes.size() > pageSize) {
+            return ResponseEntity.ok(CursorPage.of(changes, pageSize, change -> change,
+                    change -> CursorCodec.encode(change.getUpdateDate(), change.getId())));
+        }
+        // Caught up: everything before the horizon was returned, resume from there
+        return ResponseEntity.ok(new CursorPage<>(changes, FeedPosition.horizon(until)));
+    }
+
+    /**
+     * Stream the change feed as NDJSON (Accept: application/x-ndjson), from a position up to now.
+     * The position to resume from is returned upfront in the {@code X-Next-Cursor} header.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+
+        logger.debug("GET /api/contracts/changes (ndjson) ?cursor={}&since={} - Streaming changes", cursor, since);
+        FeedPosition after = FeedPosition.of(cursor, since);
+        LocalDateTime until = contractService.changeFeedHorizon();
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            contractService.streamChanges(after.date(), after.id(), until, writer::write);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("X-Next-Cursor", FeedPosition.horizon(until))
+                .body(body);
+    }
+
+    /**
+     * Renewal pipeline: active contracts ending within the next {@code days} days (until the end of that day),
+     * across all clients or the clients of a {@code type}, ordered by (endDate, id). Pass the returned
+     * {@code nextCursor} to read the next page; it is null on the last page.
+     */
+    @GetMapping(value = "/renewals", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CursorPage<ContractResponse>> getRenewals(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) ClientType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
+
+        logger.debug("GET /api/contracts/renewals?days={}&type={}&cursor={}&limit={} - Fetching renewals", days, type, cursor, limit);
+        LocalDateTime until = contractService.renewalWindowEnd(days);
+        FeedPosition after = cursor != null ? FeedPosition.of(cursor, null) : new FeedPosition(contractService.renewalWindowStart(), 0);
+        int pageSize = CursorPage.clampLimit(limit);
+
+        List<ContractResponse> renewals = contractService.getRenewals(after.date(), after.id(), until, type, pageSize + 1);
+        return ResponseEntity.ok(CursorPage.of(renewals, pageSize, renewal -> renewal,
+                renewal -> CursorCodec.encode(renewal.getEndDate(), renewal.getId())));
+    }
+
+    /**
+     * Stream the renewal pipeline as NDJSON (Accept: application/x-ndjson), from the start of the window
+     * or from a cursor of the paginated listing.
+     */
+    @GetMapping(value = "/renewals", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRenewals(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) ClientType type,
+            @RequestParam(required = false) String cursor) {
+
+        logger.debug("GET /api/contracts/renewals (ndjson) ?days={}&type={}&cursor={} - Streaming renewals", days, type, cursor);
+        LocalDateTime until = contractService.renewalWindowEnd(days);
+        FeedPosition after = cursor != null ? FeedPosition.of(cursor, null) : new FeedPosition(contractService.renewalWindowStart(), 0);
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            contractService.streamRenewals(after.date(), after.id(), until, type, writer::write);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // A request selecting no client is a client error, not an empty result
+    private static void requireSelector(ContractTotalsRequest request) {
+        if ((request.getClientIds() == null || request.getClientIds().isEmpty()) && request.getType() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "clientIds or type is required");
+        }
+    }
+
+    /**
+     * Position in a listing ordered by (date, id): the updateDate and id of the last change read,
+     * or the endDate and id of the last renewal read.
+     */
+    private record FeedPosition(LocalDateTime date, long id) {
+
+        static FeedPosition of(String cursor, LocalDateTime since) {
+            if (cursor != null) {
+                return CursorCodec.decode(cursor, 2,
+                        parts -> new FeedPosition(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1])));
+            }
+            if (since != null) {
+                return new FeedPosition(since, Long.MAX_VALUE); // strictly after since
+            }
+            return new FeedPosition(ContractService.FEED_START, 0);
+        }
+
+        /** Cursor positioned just before the horizon: the next read starts with changes at or after it. */
+        static String horizon(LocalDateTime until) {
+            return CursorCodec.encode(until, 0);
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.apifactory.clientcontractapi.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ * {@code nextCursor} is an opaque continuation token, null when the last page was reached
+ * (except for change feeds, where it is the position to poll from once caught up).
+ */
+@Getter
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /** Keeps the requested page size within [1, MAX_LIMIT]. */
+    public static int clampLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}: the extra row only tells
+     * that another page exists, it is never returned.
+     *
+     * @param rows     rows read from the database (at most limit + 1)
+     * @param limit    the page size requested by the caller
+     * @param mapper   row → DTO conversion
+     * @param cursorOf builds the continuation token from the last returned row
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, T> mapper, Function<E, String> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,17 @@
+package com.apifactory.clientcontractapi.dto.backup;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A database backup file.
+ */
+@Getter
+@Setter
+public class BackupResponse {
+    private String name;
+    private long sizeBytes;
+    private LocalDateTime createdAt;
+}
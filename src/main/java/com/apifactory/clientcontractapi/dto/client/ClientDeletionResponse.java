@@ -0,0 +1,23 @@
+package com.apifactory.clientcontractapi.dto.client;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Status of a client deletion running in the background.
+ */
+@Getter
+@Setter
+public class ClientDeletionResponse {
+    private UUID id;
+    private UUID clientId;
+    private String status;          // PENDING, RUNNING, COMPLETED or FAILED
+    private long contractCount;     // contracts of the client when the deletion was requested
+    private long contractsClosed;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
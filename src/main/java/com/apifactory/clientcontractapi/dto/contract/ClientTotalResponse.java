@@ -0,0 +1,28 @@
+package com.apifactory.clientcontractapi.dto.contract;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Total of the active contracts of one client, as returned by the multi-client totals endpoint.
+ */
+@Getter
+@Setter
+public class ClientTotalResponse {
+    private UUID clientId;
+    private BigDecimal amount;   // 0 when the client has no active contract
+    private long count;
+
+    public ClientTotalResponse() {
+    }
+
+    /** Used by the JPQL constructor expressions of ContractRepository. */
+    public ClientTotalResponse(UUID clientId, BigDecimal amount, long count) {
+        this.clientId = clientId;
+        this.amount = amount;
+        this.count = count;
+    }
+}
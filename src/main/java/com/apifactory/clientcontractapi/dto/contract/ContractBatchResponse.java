@@ -0,0 +1,27 @@
+package com.apifactory.clientcontractapi.dto.contract;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a batch contract ingestion: counters plus one result per received row.
+ */
+@Getter
+@Setter
+public class ContractBatchResponse {
+    private int created;
+    private int rejected;
+    private List<ContractBatchRowResult> rows = new ArrayList<>();
+
+    public void add(ContractBatchRowResult row) {
+        rows.add(row);
+        if (row.getStatus() == ContractBatchRowResult.Status.CREATED) {
+            created++;
+        } else {
+            rejected++;
+        }
+    }
+}
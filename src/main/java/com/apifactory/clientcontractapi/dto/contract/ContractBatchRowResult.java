@@ -0,0 +1,38 @@
+package com.apifactory.clientcontractapi.dto.contract;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of one row of a batch ingestion, in the order the rows were received.
+ */
+@Getter
+@Setter
+public class ContractBatchRowResult {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    private int index;
+    private Status status;
+    private Long id;       // set when CREATED
+    private String error;  // set when REJECTED
+
+    public static ContractBatchRowResult created(int index, Long id) {
+        ContractBatchRowResult row = new ContractBatchRowResult();
+        row.setIndex(index);
+        row.setStatus(Status.CREATED);
+        row.setId(id);
+        return row;
+    }
+
+    public static ContractBatchRowResult rejected(int index, String error) {
+        ContractBatchRowResult row = new ContractBatchRowResult();
+        row.setIndex(index);
+        row.setStatus(Status.REJECTED);
+        row.setError(error);
+        return row;
+    }
+}
@@ -1,17 +1,37 @@
 package com.apifactory.clientcontractapi.dto.contract;
 
+import com.apifactory.clientcontractapi.model.ContractStatus;
 import lombok.Getter;
 import lombok.Setter;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Getter
 @Setter
 public class ContractResponse {
     private Long id;
+    private UUID clientId;     // null once the client was deleted
     private String clientName;
     private LocalDateTime startDate;
     private LocalDateTime endDate;
     private BigDecimal costAmount;
+    private ContractStatus status;
     private LocalDateTime updateDate;
+
+    public ContractResponse() {
+    }
+
+    /** Used by the JPQL constructor expressions of ContractRepository. */
+    public ContractResponse(Long id, UUID clientId, String clientName, LocalDateTime startDate, LocalDateTime endDate,
+            BigDecimal costAmount, ContractStatus status, LocalDateTime updateDate) {
+        this.id = id;
+        this.clientId = clientId;
+        this.clientName = clientName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.costAmount = costAmount;
+        this.status = status;
+        this.updateDate = updateDate;
+    }
 }
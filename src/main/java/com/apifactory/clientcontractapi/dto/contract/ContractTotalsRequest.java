@@ -0,0 +1,18 @@
+package com.apifactory.clientcontractapi.dto.contract;
+
+import com.apifactory.clientcontractapi.model.ClientType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Selection of the clients whose active totals are computed: given ids, all clients of a type, or both.
+ */
+@Getter
+@Setter
+public class ContractTotalsRequest {
+    private Set<UUID> clientIds;
+    private ClientType type;
+}
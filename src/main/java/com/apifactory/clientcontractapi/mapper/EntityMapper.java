@@ -65,10 +65,14 @@ public class EntityMapper {
     public static ContractResponse toContractResponse(Contract contract) {
         ContractResponse dto = new ContractResponse();
         dto.setId(contract.getId());
-        dto.setClientName(contract.getClient().getName());
+        if (contract.getClient() != null) { // contracts of a deleted client are kept without client
+            dto.setClientId(contract.getClient().getId());
+            dto.setClientName(contract.getClient().getName());
+        }
         dto.setStartDate(contract.getStartDate());
         dto.setEndDate(contract.getEndDate());
         dto.setCostAmount(contract.getCostAmount());
+        dto.setStatus(contract.getStatus());
         dto.setUpdateDate(contract.getUpdateDate());
         return dto;
     }
@@ -0,0 +1,41 @@
+package com.apifactory.clientcontractapi.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running total of the active contracts of one client.
+ * Kept up to date on contract writes so the total endpoint is a primary-key read
+ * instead of a SUM over all the contracts of the client.
+ */
+@Getter
+@Setter
+@Entity
+public class ClientContractTotal {
+
+    @Id
+    private UUID clientId;
+
+    private BigDecimal activeAmount = BigDecimal.ZERO;
+
+    private long activeCount;
+
+    // Earliest endDate among the active contracts: once passed, the total is stale and must be rebuilt
+    private LocalDateTime nextExpiry;
+
+    private LocalDateTime updateDate;
+
+    protected ClientContractTotal() {
+        // for JPA
+    }
+
+    public ClientContractTotal(UUID clientId) {
+        this.clientId = clientId;
+    }
+}
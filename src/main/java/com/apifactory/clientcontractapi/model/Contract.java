@@ -18,6 +18,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 /**
  * Represents a contract associated with a client.
  * Includes start and end dates, cost amount, and last update timestamp.
+ * The table and the indexes backing the queries of {@link com.apifactory.clientcontractapi.repository.ContractRepository}
+ * are created by the migrations in db/migration (see ContractQueryPlanTest).
  */
 @Getter
 @Setter
@@ -25,7 +27,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class Contract {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contract_seq")
+    @SequenceGenerator(name = "contract_seq", sequenceName = "contract_seq", allocationSize = 50) // ids known before insert: allows JDBC batching
     private Long id;
 
     @PastOrPresent(message = "Start date cannot be in the future")
@@ -35,6 +38,10 @@ public class Contract {
     @DecimalMin(value = "0.0", inclusive = false)
     private BigDecimal costAmount;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ContractStatus status; // derived from endDate on writes, see ContractStatus
+
     @JsonIgnore // do not expose the updateDate into the API
     private LocalDateTime updateDate;
 
@@ -48,17 +55,23 @@ public class Contract {
      /** Called before the entity is first persisted (insert). */
      @PrePersist
      protected void onCreate() {
-         logger.info("ℹ️ PrePersist triggered for Contract!");
+         logger.debug("ℹ️ PrePersist triggered for Contract!");
          if (startDate == null) {
              startDate = LocalDateTime.now();
          }
+         if (status == null) {
+             status = ContractStatus.forEndDate(endDate);
+         }
          updateDate = LocalDateTime.now();
      }
 
      /** Called before the entity is updated (update). */
      @PreUpdate
      protected void onUpdate() {
-        logger.info("ℹ️ PreUpdate triggered for Contract!");
+        logger.debug("ℹ️ PreUpdate triggered for Contract!");
+         if (status != ContractStatus.CLOSED) {
+             status = ContractStatus.forEndDate(endDate);
+         }
          updateDate = LocalDateTime.now();
      }
 }
\ No newline at end of file
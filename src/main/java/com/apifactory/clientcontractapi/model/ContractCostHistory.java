@@ -0,0 +1,58 @@
+package com.apifactory.clientcontractapi.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One cost amount of a contract and the period it was valid, see ContractCostHistoryService.
+ * Rows are only appended, then closed by setting {@code validTo}.
+ * The client is a plain id: it is kept once the client is deleted.
+ */
+@Getter
+@Setter
+@Entity
+public class ContractCostHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contract_cost_history_seq")
+    @SequenceGenerator(name = "contract_cost_history_seq", sequenceName = "contract_cost_history_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false) // inserted after its contract in ordered batches
+    @JoinColumn(name = "contract_id", nullable = false)
+    private Contract contract;
+
+    private UUID clientId; // client owning the contract while this amount was valid
+
+    @Column(nullable = false)
+    private BigDecimal costAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime validFrom; // inclusive
+
+    private LocalDateTime validTo; // exclusive, null while the amount is current
+
+    protected ContractCostHistory() {
+        // for JPA
+    }
+
+    public ContractCostHistory(Contract contract, LocalDateTime validFrom) {
+        this.contract = contract;
+        this.clientId = contract.getClient() == null ? null : contract.getClient().getId();
+        this.costAmount = contract.getCostAmount();
+        this.validFrom = validFrom;
+    }
+}
@@ -0,0 +1,26 @@
+package com.apifactory.clientcontractapi.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lifecycle of a contract, persisted so that active contracts are found by an equality on an indexed column.
+ */
+public enum ContractStatus {
+    /** No end date, or ending after today's start. */
+    ACTIVE,
+    /** Reached its end date; flipped from ACTIVE by the nightly sweep (ContractExpiryService). */
+    EXPIRED,
+    /** Closed early, when its client was deleted. */
+    CLOSED;
+
+    /**
+     * Status of a contract from its end date: active while the end date is after the start of today.
+     *
+     * @param endDate the contract end date, null for an open-ended contract
+     * @return ACTIVE or EXPIRED
+     */
+    public static ContractStatus forEndDate(LocalDateTime endDate) {
+        return endDate == null || endDate.isAfter(LocalDate.now().atStartOfDay()) ? ACTIVE : EXPIRED;
+    }
+}
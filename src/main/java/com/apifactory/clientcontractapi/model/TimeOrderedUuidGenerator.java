@@ -0,0 +1,45 @@
+package com.apifactory.clientcontractapi.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (version 7, RFC 9562): 48 bits of Unix epoch milliseconds, then a 12 bits counter,
+ * then 62 random bits.
+ * <p>
+ * Successive ids are increasing, so inserts append to the right edge of the primary key and foreign key
+ * indexes instead of splitting random pages. The counter keeps ids of the same millisecond increasing
+ * (within this JVM); when it overflows, the timestamp part moves to the next millisecond.
+ */
+public class TimeOrderedUuidGenerator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** Last (millis << 12 | counter) handed out. */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    /**
+     * Generates a new time-ordered UUID.
+     *
+     * @return a version 7 UUID, greater than the ones previously generated by this JVM
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long timeAndCounter = LAST.updateAndGet(last -> Math.max(now, last + 1));
+
+        long msb = (timeAndCounter >>> 12) << 16   // unix_ts_ms (48 bits)
+                | 0x7000L                           // version
+                | (timeAndCounter & 0xFFFL);        // rand_a, used as counter (12 bits)
+        long lsb = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L; // variant + rand_b (62 bits)
+        return new UUID(msb, lsb);
+    }
+}
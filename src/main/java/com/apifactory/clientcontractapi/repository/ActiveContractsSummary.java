@@ -0,0 +1,19 @@
+package com.apifactory.clientcontractapi.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of the active contracts of one client, computed in a single query.
+ */
+public interface ActiveContractsSummary {
+
+    /** Sum of the active contract cost amounts (0 if none). */
+    BigDecimal getAmount();
+
+    /** Number of active contracts. */
+    long getCount();
+
+    /** Earliest end date among the active contracts, null if none of them ends. */
+    LocalDateTime getNextExpiry();
+}
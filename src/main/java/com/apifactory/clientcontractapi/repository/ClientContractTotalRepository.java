@@ -0,0 +1,59 @@
+package com.apifactory.clientcontractapi.repository;
+
+import com.apifactory.clientcontractapi.model.ClientContractTotal;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for managing {@link ClientContractTotal} projections.
+ */
+@Repository
+public interface ClientContractTotalRepository extends JpaRepository<ClientContractTotal, UUID> {
+
+    /**
+     * Creates an empty total for a client if it has none, and locks its row either way.
+     * H2's {@code MERGE ... KEY} waits for a concurrent insert of the same client and then updates it,
+     * so two first writes on a client never race into a primary key violation.
+     * The created row has no {@code updateDate}: it is rebuilt before its first use.
+     *
+     * @param clientId the UUID of the client.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "MERGE INTO client_contract_total (client_id) KEY (client_id) VALUES (:clientId)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "client_contract_total")) // keep the other cache regions
+    void insertIfAbsent(UUID clientId);
+
+    /**
+     * Loads the total of a client and locks its row until the end of the transaction,
+     * so concurrent contract writes on the same client apply their deltas one after the other.
+     *
+     * @param clientId the UUID of the client.
+     * @return the locked total, or empty if none was created yet (see {@link #insertIfAbsent(UUID)}).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM ClientContractTotal t WHERE t.clientId = :clientId")
+    Optional<ClientContractTotal> findForUpdate(UUID clientId);
+
+    /**
+     * Finds the clients whose total includes a contract that is no longer active.
+     *
+     * @param cutoff contracts ending at or before this instant are expired (start of the current day).
+     * @return the ids of the clients whose total must be rebuilt.
+     */
+    @Query("SELECT t.clientId FROM ClientContractTotal t WHERE t.nextExpiry <= :cutoff")
+    List<UUID> findStaleClientIds(LocalDateTime cutoff);
+}
@@ -2,11 +2,21 @@ package com.apifactory.clientcontractapi.repository;
 
 import com.apifactory.clientcontractapi.model.Client;
 import com.apifactory.clientcontractapi.model.ClientType;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing {@link Client} entities.
@@ -19,9 +29,52 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
 
     /**
      * Finds all clients by their type (PERSON or COMPANY).
+     * Results are kept in the query cache until the client tables change.
      *
      * @param type the client type to filter by
      * @return a list of clients matching the given type (PERSON or COMPANY)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Client> findByType(ClientType type);
+
+    /**
+     * Returns the first page of clients ordered by id (keyset pagination entry point).
+     *
+     * @param limit the maximum number of clients to return
+     * @return clients ordered by id
+     */
+    List<Client> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Returns the clients following the given id, ordered by id.
+     * Seeks on the primary key index instead of skipping rows like an OFFSET would.
+     *
+     * @param id    the id of the last client of the previous page
+     * @param limit the maximum number of clients to return
+     * @return clients with an id greater than the given one, ordered by id
+     */
+    List<Client> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Streams all clients ordered by id through a forward-only cursor.
+     * Must be consumed (and closed) inside a transaction.
+     *
+     * @return a lazy stream of all clients
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Client c ORDER BY c.id")
+    Stream<Client> streamAll();
+
+    /**
+     * Returns which of the given ids belong to an existing client, in a single query
+     * (no entity is loaded, only the client table is read).
+     *
+     * @param ids the client ids to check
+     * @return the subset of ids that exist
+     */
+    @Query("SELECT c.id FROM Client c WHERE c.id IN :ids")
+    Set<UUID> findExistingIds(Collection<UUID> ids);
 }
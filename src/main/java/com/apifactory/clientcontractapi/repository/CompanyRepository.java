@@ -1,7 +1,10 @@
 package com.apifactory.clientcontractapi.repository;
 
 import com.apifactory.clientcontractapi.model.Company;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
@@ -17,9 +20,11 @@ public interface CompanyRepository extends JpaRepository<Company, UUID> {
 
     /**
      * Checks if a company already exists with the given identifier.
+     * Answered from the query cache until the company table changes.
      *
      * @param companyId the unique identifier of the company.
      * @return true if a company exists with this identifier, else false.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCompanyId(String companyId);
 }
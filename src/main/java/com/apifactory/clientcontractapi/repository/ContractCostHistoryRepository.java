@@ -0,0 +1,81 @@
+package com.apifactory.clientcontractapi.repository;
+
+import com.apifactory.clientcontractapi.model.ContractCostHistory;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for managing {@link ContractCostHistory} rows.
+ */
+@Repository
+public interface ContractCostHistoryRepository extends JpaRepository<ContractCostHistory, Long> {
+
+    /**
+     * Retrieves the cost amounts of a contract, oldest first.
+     *
+     * @param contractId the id of the contract.
+     * @return the history of the contract.
+     */
+    List<ContractCostHistory> findByContractIdOrderByValidFromAsc(Long contractId);
+
+    /**
+     * Ends the current amount of a contract, before a new one is recorded.
+     *
+     * @param contractId the id of the contract.
+     * @param now        the end of validity of the current amount.
+     * @return the number of rows closed (1, or 0 for a contract without history).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContractCostHistory h SET h.validTo = :now WHERE h.contract.id = :contractId AND h.validTo IS NULL")
+    int closeCurrentByContractId(Long contractId, LocalDateTime now);
+
+    /**
+     * Ends the current amounts of all the contracts of a client, when the client is deleted.
+     *
+     * @param clientId the UUID of the client.
+     * @param now      the end of validity of the current amounts.
+     * @return the number of rows closed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContractCostHistory h SET h.validTo = :now WHERE h.clientId = :clientId AND h.validTo IS NULL")
+    int closeCurrentByClientId(UUID clientId, LocalDateTime now);
+
+    /**
+     * Ends the current amounts of the given contracts.
+     *
+     * @param contractIds the ids of the contracts.
+     * @param now         the end of validity of the current amounts.
+     * @return the number of rows closed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContractCostHistory h SET h.validTo = :now WHERE h.contract.id IN :contractIds AND h.validTo IS NULL")
+    int closeCurrentByContractIds(Collection<Long> contractIds, LocalDateTime now);
+
+    /**
+     * Sums the amounts a client's active contracts had at an instant, in one range query:
+     * the amounts valid at {@code at}, of contracts not ended before {@code activeCutoff}.
+     *
+     * @param clientId     the UUID of the client.
+     * @param at           the instant.
+     * @param activeCutoff start of the day of {@code at}: contracts ending at or before it were no longer active.
+     * @return the total at that instant (0 if none).
+     */
+    @Query("""
+        SELECT COALESCE(SUM(h.costAmount), 0)
+        FROM ContractCostHistory h JOIN h.contract c
+        WHERE h.clientId = :clientId
+        AND h.validFrom <= :at
+        AND (h.validTo IS NULL OR h.validTo > :at)
+        AND (c.endDate IS NULL OR c.endDate > :activeCutoff)
+    """)
+    BigDecimal sumActiveAmountAt(UUID clientId, LocalDateTime at, LocalDateTime activeCutoff);
+}
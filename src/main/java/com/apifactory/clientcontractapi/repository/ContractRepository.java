@@ -1,14 +1,26 @@
 package com.apifactory.clientcontractapi.repository;
 
+import com.apifactory.clientcontractapi.dto.contract.ClientTotalResponse;
+import com.apifactory.clientcontractapi.dto.contract.ContractResponse;
+import com.apifactory.clientcontractapi.model.ClientType;
 import com.apifactory.clientcontractapi.model.Contract;
+import com.apifactory.clientcontractapi.model.ContractStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing {@link Contract} entities.
@@ -19,9 +31,19 @@ import java.util.UUID;
 @Repository
 public interface ContractRepository extends JpaRepository<Contract, Long> {
 
+    /**
+     * Retrieves a contract with its client, in one statement: the contract can be mapped to a response
+     * once the transaction is over (open-in-view is disabled, a lazy client proxy could not be loaded then).
+     *
+     * @param id the contract ID.
+     * @return the contract and its client, if found.
+     */
+    @Query("SELECT c FROM Contract c LEFT JOIN FETCH c.client WHERE c.id = :id")
+    Optional<Contract> findWithClientById(Long id);
+
     /**
      * Retrieves all active contracts for a specific client.
-     * A contract is considered active if : endDate == null or endDate > current date.
+     * A contract is active while endDate == null or endDate > current date, persisted as {@link ContractStatus#ACTIVE}.
      *
      * @param clientId the UUID of the client.
      * @param updateDate optionnal filter; if null, all active contracts are returned.
@@ -30,11 +52,157 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
     @Query("""
         SELECT c FROM Contract c
         WHERE c.client.id = :clientId
-        AND (c.endDate IS NULL OR c.endDate > CURRENT_DATE)
+        AND c.status = ACTIVE
         AND (:updateDate IS NULL OR c.updateDate >= :updateDate)
     """)    
     List<Contract> findActiveContractsByClientId(UUID clientId, LocalDateTime updateDate);
 
+    /**
+     * Same filter as {@link #findActiveContractsByClientId}, read straight into response DTOs:
+     * one SQL statement with the client name joined, no entity nor lazy client proxy to load.
+     * Inner join on purpose: with an outer join, H2 scans the contracts before applying the client filter.
+     *
+     * @param clientId the UUID of the client.
+     * @param updateDate optionnal filter; if null, all active contracts are returned.
+     * @return the active contracts of the client, ready to be serialized.
+     */
+    @Query("""
+        SELECT new com.apifactory.clientcontractapi.dto.contract.ContractResponse(
+            c.id, cl.id, cl.name, c.startDate, c.endDate, c.costAmount, c.status, c.updateDate)
+        FROM Contract c JOIN c.client cl
+        WHERE cl.id = :clientId
+        AND c.status = ACTIVE
+        AND (:updateDate IS NULL OR c.updateDate >= :updateDate)
+    """)
+    List<ContractResponse> findActiveContractResponsesByClientId(UUID clientId, LocalDateTime updateDate);
+
+    /**
+     * One page of the change feed: contracts ordered by (updateDate, id), strictly after the given cursor,
+     * active or not, including the ones of deleted clients.
+     * The {@code updateDate >= :afterDate} conjunct is redundant but lets the database seek the index.
+     *
+     * @param afterDate updateDate of the last row already read
+     * @param afterId   id of the last row already read
+     * @param until     upper bound (exclusive) on updateDate, see ContractService#changeFeedHorizon
+     * @param limit     maximum number of rows
+     * @return the following changes
+     */
+    @Query("""
+        SELECT new com.apifactory.clientcontractapi.dto.contract.ContractResponse(
+            c.id, cl.id, cl.name, c.startDate, c.endDate, c.costAmount, c.status, c.updateDate)
+        FROM Contract c LEFT JOIN c.client cl
+        WHERE c.updateDate >= :afterDate
+        AND (c.updateDate > :afterDate OR c.id > :afterId)
+        AND c.updateDate < :until
+        ORDER BY c.updateDate, c.id
+    """)
+    List<ContractResponse> findChangesAfter(LocalDateTime afterDate, Long afterId, LocalDateTime until, Limit limit);
+
+    /**
+     * Streams the change feed from a cursor through a forward-only database cursor.
+     * Must be consumed (and closed) inside a transaction.
+     *
+     * @param afterDate updateDate of the last row already read
+     * @param afterId   id of the last row already read
+     * @param until     upper bound (exclusive) on updateDate
+     * @return a lazy stream of the following changes
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.apifactory.clientcontractapi.dto.contract.ContractResponse(
+            c.id, cl.id, cl.name, c.startDate, c.endDate, c.costAmount, c.status, c.updateDate)
+        FROM Contract c LEFT JOIN c.client cl
+        WHERE c.updateDate >= :afterDate
+        AND (c.updateDate > :afterDate OR c.id > :afterId)
+        AND c.updateDate < :until
+        ORDER BY c.updateDate, c.id
+    """)
+    Stream<ContractResponse> streamChangesAfter(LocalDateTime afterDate, Long afterId, LocalDateTime until);
+
+    /**
+     * Counts the contracts of a client, active or not.
+     * Written out: the derived query joined the client table and scanned the whole client_id index.
+     *
+     * @param clientId the UUID of the client.
+     * @return the number of contracts still linked to the client.
+     */
+    @Query("SELECT COUNT(c) FROM Contract c WHERE c.client.id = :clientId")
+    long countByClientId(UUID clientId);
+
+    /**
+     * Retrieves the ids of some contracts of a client, to process them chunk by chunk.
+     *
+     * @param clientId the UUID of the client.
+     * @param limit    the maximum number of ids.
+     * @return ids of contracts still linked to the client, in no particular order.
+     */
+    @Query("SELECT c.id FROM Contract c WHERE c.client.id = :clientId")
+    List<Long> findIdsByClientId(UUID clientId, Limit limit);
+
+    /**
+     * Closes the active contracts of a client (CLOSED, endDate set to {@code now}) and unlinks all their contracts from it,
+     * in a single UPDATE. Bypasses the entity callbacks, so updateDate is set here.
+     * The persistence context is flushed before and cleared after, as it does not see bulk updates.
+     *
+     * @param clientId the UUID of the client about to be deleted.
+     * @param now      the closing date.
+     * @return the number of contracts updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Contract c
+        SET c.endDate = CASE WHEN c.status = ACTIVE THEN :now ELSE c.endDate END,
+            c.status = CASE WHEN c.status = ACTIVE THEN com.apifactory.clientcontractapi.model.ContractStatus.CLOSED ELSE c.status END,
+            c.client = NULL,
+            c.updateDate = :now
+        WHERE c.client.id = :clientId
+    """)
+    int closeAndDetachByClientId(UUID clientId, LocalDateTime now);
+
+    /**
+     * Same as {@link #closeAndDetachByClientId} for the given contracts only, to bound the rows locked by one statement.
+     *
+     * @param ids the contracts to close and unlink.
+     * @param now the closing date.
+     * @return the number of contracts updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Contract c
+        SET c.endDate = CASE WHEN c.status = ACTIVE THEN :now ELSE c.endDate END,
+            c.status = CASE WHEN c.status = ACTIVE THEN com.apifactory.clientcontractapi.model.ContractStatus.CLOSED ELSE c.status END,
+            c.client = NULL,
+            c.updateDate = :now
+        WHERE c.id IN :ids
+    """)
+    int closeAndDetachByIds(Collection<Long> ids, LocalDateTime now);
+
+    /**
+     * Retrieves the ids of active contracts whose end date has passed, to expire them batch by batch.
+     *
+     * @param cutoff the start of today: contracts ending at or before it are no longer active.
+     * @param limit  the maximum number of ids.
+     * @return ids of contracts to expire, in no particular order.
+     */
+    @Query("SELECT c.id FROM Contract c WHERE c.status = ACTIVE AND c.endDate <= :cutoff")
+    List<Long> findIdsToExpire(LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Marks the given contracts as EXPIRED (if still active). Bypasses the entity callbacks, so updateDate is set here:
+     * the change feed publishes the new status.
+     *
+     * @param ids the contracts to expire.
+     * @param now the update date.
+     * @return the number of contracts updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Contract c
+        SET c.status = EXPIRED, c.updateDate = :now
+        WHERE c.id IN :ids AND c.status = ACTIVE
+    """)
+    int expireByIds(Collection<Long> ids, LocalDateTime now);
+
     /**
      * Calculates the total cost of all active contracts for a specific client.
      *
@@ -44,7 +212,108 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
     @Query("""
         SELECT COALESCE(SUM(c.costAmount), 0) FROM Contract c 
         WHERE c.client.id = :clientId 
-        AND (c.endDate IS NULL OR c.endDate > CURRENT_DATE)
+        AND c.status = ACTIVE
     """)
     BigDecimal sumActiveContractsByClientId(UUID clientId);
+
+    /**
+     * Computes amount, count and next expiry of the active contracts of a client in one pass.
+     * Used to (re)build the {@link com.apifactory.clientcontractapi.model.ClientContractTotal} projection.
+     *
+     * @param clientId the UUID of the client.
+     * @return the aggregate of the active contracts of the client.
+     */
+    @Query("""
+        SELECT COALESCE(SUM(c.costAmount), 0) AS amount, COUNT(c) AS count, MIN(c.endDate) AS nextExpiry
+        FROM Contract c
+        WHERE c.client.id = :clientId
+        AND c.status = ACTIVE
+    """)
+    ActiveContractsSummary summarizeActiveContractsByClientId(UUID clientId);
+
+    /**
+     * Computes the active totals of several clients in one grouped query.
+     *
+     * @param clientIds the UUIDs of the clients; unknown ids are left out of the result.
+     * @param type      optional filter on the client type; if null, clients of both types are returned.
+     * @return one total per client, ordered by client id, 0 for clients without active contracts.
+     */
+    @Query("""
+        SELECT new com.apifactory.clientcontractapi.dto.contract.ClientTotalResponse(
+            cl.id, COALESCE(SUM(c.costAmount), 0), COUNT(c.id))
+        FROM Client cl LEFT JOIN Contract c ON c.client = cl AND c.status = ACTIVE
+        WHERE cl.id IN :clientIds
+        AND (:type IS NULL OR cl.type = :type)
+        GROUP BY cl.id
+        ORDER BY cl.id
+    """)
+    List<ClientTotalResponse> sumActiveContractsByClientIds(Collection<UUID> clientIds, ClientType type);
+
+    /**
+     * Streams the active totals of all the clients of a type, grouped in one query.
+     * Must be consumed inside a transaction and closed.
+     *
+     * @param type the client type.
+     * @return a lazy stream of one total per client, ordered by client id.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.apifactory.clientcontractapi.dto.contract.ClientTotalResponse(
+            cl.id, COALESCE(SUM(c.costAmount), 0), COUNT(c.id))
+        FROM Client cl LEFT JOIN Contract c ON c.client = cl AND c.status = ACTIVE
+        WHERE cl.type = :type
+        GROUP BY cl.id
+        ORDER BY cl.id
+    """)
+    Stream<ClientTotalResponse> streamActiveTotalsByClientType(ClientType type);
+
+    /**
+     * One page of the renewal pipeline: active contracts ending before {@code until}, ordered by (endDate, id),
+     * strictly after the given cursor. Read as a range of the (status, end_date, id) index, in index order:
+     * status is constant here, it is only sorted on so that H2 recognizes the order of the index.
+     *
+     * @param afterDate endDate of the last row already read (the start of today for the first page)
+     * @param afterId   id of the last row already read
+     * @param until     upper bound (exclusive) on endDate
+     * @param type      optional filter on the client type; if null, contracts of all clients are returned
+     * @param limit     maximum number of rows
+     * @return the following contracts to renew
+     */
+    @Query("""
+        SELECT new com.apifactory.clientcontractapi.dto.contract.ContractResponse(
+            c.id, cl.id, cl.name, c.startDate, c.endDate, c.costAmount, c.status, c.updateDate)
+        FROM Contract c JOIN c.client cl
+        WHERE c.status = ACTIVE
+        AND c.endDate >= :afterDate
+        AND (c.endDate > :afterDate OR c.id > :afterId)
+        AND c.endDate < :until
+        AND (:type IS NULL OR cl.type = :type)
+        ORDER BY c.status, c.endDate, c.id
+    """)
+    List<ContractResponse> findRenewalsAfter(LocalDateTime afterDate, Long afterId, LocalDateTime until, ClientType type,
+            Limit limit);
+
+    /**
+     * Streams the renewal pipeline from a cursor through a forward-only database cursor.
+     * Must be consumed (and closed) inside a transaction.
+     *
+     * @param afterDate endDate of the last row already read
+     * @param afterId   id of the last row already read
+     * @param until     upper bound (exclusive) on endDate
+     * @param type      optional filter on the client type
+     * @return a lazy stream of the following contracts to renew
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.apifactory.clientcontractapi.dto.contract.ContractResponse(
+            c.id, cl.id, cl.name, c.startDate, c.endDate, c.costAmount, c.status, c.updateDate)
+        FROM Contract c JOIN c.client cl
+        WHERE c.status = ACTIVE
+        AND c.endDate >= :afterDate
+        AND (c.endDate > :afterDate OR c.id > :afterId)
+        AND c.endDate < :until
+        AND (:type IS NULL OR cl.type = :type)
+        ORDER BY c.status, c.endDate, c.id
+    """)
+    Stream<ContractResponse> streamRenewalsAfter(LocalDateTime afterDate, Long afterId, LocalDateTime until, ClientType type);
 }
@@ -1,5 +1,6 @@
 package com.apifactory.clientcontractapi.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,18 +9,23 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Servlet filter that extracts a Bearer JWT from Authorization header,
  * validates it, and populates the Spring Security context if valid.
+ * <p>
+ * The principal is built from the token claims only (subject and roles): no user lookup per request.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -27,11 +33,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenDenylist tokenDenylist;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService uds) {
+    public JwtAuthenticationFilter(JwtService jwtService, TokenDenylist tokenDenylist) {
         this.jwtService = jwtService;
-        this.userDetailsService = uds;
+        this.tokenDenylist = tokenDenylist;
     }
 
     @Override
@@ -50,18 +56,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7).trim();
 
-        // Validate and populate security context
-        if (jwtService.isValid(token)) {
-            String username = jwtService.getUsername(token);
-            UserDetails user = userDetailsService.loadUserByUsername(username);
+        // Validate (once) and populate security context
+        Optional<Claims> claims = jwtService.verify(token);
+        if (claims.isPresent() && !tokenDenylist.isRevoked(claims.get().getId())) {
+            String username = claims.get().getSubject();
+            List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList(jwtService.getAuthorities(claims.get()));
+            User user = new User(username, "", authorities); // no credentials: the token was the proof
 
             // Create authenticated Authentication object
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            logger.info("Authenticated request for user {}", username);
+            logger.debug("Authenticated request for user {}", username);
         } else {
-            logger.warn("Invalid JWT token received");
+            logger.debug("Invalid or revoked JWT token received");
         }
 
         filterChain.doFilter(request, response);
@@ -1,38 +1,70 @@
 package com.apifactory.clientcontractapi.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service responsible for creating and validating JWT tokens.
+ * <p>
+ * Verified tokens are kept in a bounded cache (keyed by their SHA-256, until they expire),
+ * so the signature of a token is checked once, not on every request.
  */
 @Service
 public class JwtService {
 
+    /** Claim holding the granted authorities (e.g. ROLE_ADMIN), so requests are authenticated without a user lookup. */
+    public static final String ROLES_CLAIM = "roles";
+
     private final Key key;
     private final long expirationMs;
+    private final JwtParser parser; // immutable and thread-safe: built once
+    private final Cache<String, Claims> verifiedTokens;
 
     public JwtService(
             @Value("${spring.security.jwt.secret}") String secret,
-            @Value("${spring.security.jwt.expiration}") long expirationMs) {
+            @Value("${spring.security.jwt.expiration}") long expirationMs,
+            @Value("${spring.security.jwt.cache-size:10000}") long cacheSize) {
         // NOTE: In production, ensure your secret is a strong Base64-encoded key
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     /**
-     * Generates a signed JWT token with the given username as subject.
+     * Generates a signed JWT token with the given username as subject and its authorities as claim.
+     * Each token gets a unique id (jti) so it can be revoked.
      */
-    public String generateToken(String username) {
+    public String generateToken(String username, Collection<String> authorities) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
+                .claim(ROLES_CLAIM, List.copyOf(authorities))
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(key, SignatureAlgorithm.HS256)
@@ -40,28 +72,89 @@ public class JwtService {
     }
 
     /**
-     * Validates token signature and expiration.
+     * Validates token signature and expiration, and returns its claims.
+     * Tokens already verified are served from the cache until they expire.
+     *
+     * @param token the compact JWT
+     * @return the claims, or empty if the token is invalid or expired
      */
-    public boolean isValid(String token) {
+    public Optional<Claims> verify(String token) {
+        String cacheKey = sha256(token);
+        Claims claims = verifiedTokens.getIfPresent(cacheKey);
+        if (claims != null) {
+            return Optional.of(claims);
+        }
+
         try {
-            parseClaims(token);
-            return true;
+            claims = parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
+        }
+        if (claims.getExpiration() != null) { // tokens without expiry are valid but never cached
+            verifiedTokens.put(cacheKey, claims);
         }
+        return Optional.of(claims);
+    }
+
+    /**
+     * Reads the authorities embedded in verified claims.
+     *
+     * @param claims claims returned by {@link #verify(String)}
+     * @return the authorities, empty for tokens issued without the claim
+     */
+    public List<String> getAuthorities(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream().map(String::valueOf).toList();
+    }
+
+    /**
+     * Validates token signature and expiration.
+     */
+    public boolean isValid(String token) {
+        return verify(token).isPresent();
     }
 
     /**
      * Extracts username (subject) from token.
+     *
+     * @throws IllegalArgumentException if the token is invalid
      */
     public String getUsername(String token) {
-        return parseClaims(token).getBody().getSubject();
+        return verify(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid JWT token"));
     }
 
-    private Jws<Claims> parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+    // The token itself is a bearer credential: only its hash is kept in memory
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Evicts each cached token when it expires. */
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.apifactory.clientcontractapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory set of revoked token ids (jti claim).
+ * <p>
+ * An id is only kept until its token expires: after that the token is rejected anyway. Tokens without exp claim
+ * (not issued by {@link JwtService}, which always sets it) are kept for the configured token lifetime.
+ * Not bounded in size on purpose, evicting a revoked id would make its token valid again.
+ * Single-node only: the list is lost on restart and not shared between instances.
+ */
+@Component
+public class TokenDenylist {
+
+    private final Cache<String, Date> revoked = Caffeine.newBuilder()
+            .expireAfter(new UntilTokenExpiry())
+            .build();
+    private final long tokenLifetimeMs;
+
+    public TokenDenylist(@Value("${spring.security.jwt.expiration}") long tokenLifetimeMs) {
+        this.tokenLifetimeMs = tokenLifetimeMs;
+    }
+
+    /**
+     * Revokes a token until its expiration.
+     *
+     * @param tokenId   the jti claim of the token
+     * @param expiresAt the exp claim of the token, null if it has none
+     */
+    public void revoke(String tokenId, Date expiresAt) {
+        revoked.put(tokenId, expiresAt != null ? expiresAt : new Date(System.currentTimeMillis() + tokenLifetimeMs));
+    }
+
+    /**
+     * Tells whether a token was revoked.
+     *
+     * @param tokenId the jti claim of the token (tokens without id cannot be revoked)
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.getIfPresent(tokenId) != null;
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, Date> {
+
+        @Override
+        public long expireAfterCreate(String tokenId, Date expiresAt, long currentTime) {
+            long remainingMs = expiresAt.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenId, Date expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenId, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenId, Date expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
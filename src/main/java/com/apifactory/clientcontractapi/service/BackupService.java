@@ -0,0 +1,348 @@
+package com.apifactory.clientcontractapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Online backups of the H2 database.
+ * <p>
+ * A backup is the output of H2's {@code SCRIPT} command (schema and data as SQL), read from one
+ * snapshot transaction while the application keeps serving requests, and gzip-compressed on the fly
+ * into {@code backup_<timestamp>_<digest>.sql.gz}. The digest of the script is part of the file name:
+ * a run producing the same script as the latest backup keeps no file, so frequent runs only cost
+ * disk space when the data changed. Old backups are pruned by count and age.
+ * <p>
+ * Backups run one at a time on a dedicated thread, never on a request or on the shared scheduler thread.
+ * Not annotated with @Transactional on purpose: it works on its own JDBC connections.
+ */
+@Service
+public class BackupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupService.class);
+
+    private static final Pattern BACKUP_FILE = Pattern.compile("backup_\\d{8}_\\d{6}_\\d{3}_([0-9a-f]{16})\\.sql\\.gz");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final Path folder;
+    private final int retentionCount;
+    private final Duration retentionAge;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "backup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<BackupRun> pending; // guarded by this
+
+    private final MeterRegistry meterRegistry;
+    private final Counter scriptBytes;
+    private final DistributionSummary backupSize;
+    private final Timer restoreDuration;
+    private final AtomicLong lastSuccess = new AtomicLong();
+
+    /**
+     * Outcome of a backup run.
+     *
+     * @param file    the new backup, or the latest one when the data did not change
+     * @param created false when the run was skipped because the data did not change
+     */
+    public record BackupRun(Path file, boolean created) {
+    }
+
+    public BackupService(DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${backup.enabled:true}") boolean enabled,
+            @Value("${backup.folder:./backups}") String folder,
+            @Value("${backup.retention.max-count:24}") int retentionCount,
+            @Value("${backup.retention.max-age:7d}") Duration retentionAge) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.folder = Paths.get(folder);
+        this.retentionCount = Math.max(1, retentionCount);
+        this.retentionAge = retentionAge;
+
+        this.meterRegistry = meterRegistry;
+        this.scriptBytes = Counter.builder("backup.script.bytes")
+                .description("Uncompressed SQL read from the database by backups (rate = backup throughput)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.backupSize = DistributionSummary.builder("backup.size")
+                .description("Size of the compressed backup files written")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.restoreDuration = Timer.builder("backup.restore.duration")
+                .description("Time to rebuild the database from a backup")
+                .register(meterRegistry);
+        Gauge.builder("backup.last.success", lastSuccess, AtomicLong::get)
+                .description("Epoch second of the last successful backup run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Tells whether a file name is a backup written by this service.
+     *
+     * @param fileName the file name
+     * @return true for backup files
+     */
+    public static boolean isBackupFile(String fileName) {
+        return BACKUP_FILE.matcher(fileName).matches();
+    }
+
+    /**
+     * Scheduled backup (backup.cron), handed over to the backup thread.
+     */
+    @Scheduled(cron = "${backup.cron}")
+    public void scheduledBackup() {
+        if (enabled) {
+            requestBackup();
+        }
+    }
+
+    /**
+     * Queues a backup on the backup thread.
+     * A request made while a backup is queued or running joins it instead of queuing another one.
+     *
+     * @return the pending backup run
+     */
+    public synchronized Future<BackupRun> requestBackup() {
+        if (pending == null || pending.isDone()) {
+            pending = executor.submit(this::backup);
+        }
+        return pending;
+    }
+
+    /**
+     * Writes a backup now, in the calling thread.
+     * Prefer {@link #requestBackup()}, which serializes the runs.
+     *
+     * @return the outcome of the run
+     */
+    public BackupRun backup() {
+        long start = System.nanoTime();
+        String result = "failed";
+        try {
+            BackupRun run = writeBackup();
+            result = run.created() ? "created" : "unchanged";
+            lastSuccess.set(Instant.now().getEpochSecond());
+            prune();
+            return run;
+        } finally {
+            meterRegistry.timer("backup.duration", "result", result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private BackupRun writeBackup() {
+        long start = System.nanoTime();
+        Path temp = null;
+        try {
+            Files.createDirectories(folder);
+            temp = Files.createTempFile(folder, "backup_", ".tmp");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long bytes = 0;
+            try (Connection connection = dataSource.getConnection();
+                    OutputStream out = new DigestOutputStream(
+                            new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), 1 << 16),
+                            digest)) {
+                // One consistent snapshot of all the tables, without blocking the writers
+                connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                connection.setAutoCommit(false);
+                connection.setReadOnly(true);
+                try (Statement statement = connection.createStatement();
+                        ResultSet script = statement.executeQuery("SCRIPT")) {
+                    while (script.next()) {
+                        byte[] line = (script.getString(1) + "\n").getBytes(StandardCharsets.UTF_8);
+                        out.write(line);
+                        bytes += line.length;
+                    }
+                } finally {
+                    connection.rollback();
+                }
+            }
+            scriptBytes.increment(bytes);
+            String fingerprint = HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+
+            Optional<Path> latest = listBackups().stream().findFirst();
+            if (latest.isPresent() && fingerprint.equals(fingerprintOf(latest.get()))) {
+                Files.delete(temp);
+                logger.info("Backup skipped: no change since {}", latest.get().getFileName());
+                return new BackupRun(latest.get(), false);
+            }
+
+            Path file = folder.resolve("backup_" + LocalDateTime.now().format(TIMESTAMP) + "_" + fingerprint + ".sql.gz");
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(file);
+            backupSize.record(size);
+
+            double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+            logger.info("Backup written: {} ({} KB, {} KB of SQL in {} ms, {} MB/s)", file.getFileName(),
+                    size / 1024, bytes / 1024, Math.round(seconds * 1000), String.format("%.1f", bytes / seconds / 1e6));
+            return new BackupRun(file, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Backup failed", e);
+        } catch (SQLException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Backup failed", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Lists the backups, most recent first.
+     *
+     * @return the backup files
+     */
+    public List<Path> listBackups() {
+        if (!Files.isDirectory(folder)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.filter(file -> isBackupFile(file.getFileName().toString()))
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list backups in " + folder, e);
+        }
+    }
+
+    /**
+     * Retrieves a backup by file name.
+     *
+     * @param name the backup file name, or "latest"
+     * @return the backup file
+     */
+    public Path getBackup(String name) {
+        if ("latest".equals(name)) {
+            return listBackups().stream().findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No backup in " + folder));
+        }
+        Path file = folder.resolve(name);
+        if (!isBackupFile(name) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Backup not found: " + name);
+        }
+        return file;
+    }
+
+    /**
+     * Replaces the whole database content by a backup: drops every object, then runs the backup script.
+     * Much faster than rebuilding the data through the application, the script inserts rows in bulk.
+     * <p>
+     * Meant for startup: Hibernate keeps ranges of sequence values in memory, which a restore
+     * on a running application would make stale. The caller empties the second-level cache.
+     *
+     * @param backup the backup file to restore
+     */
+    public void restore(Path backup) {
+        long start = System.nanoTime();
+        String path = backup.toAbsolutePath().toString().replace("'", "''");
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM '" + path + "' COMPRESSION GZIP");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Restore from " + backup.getFileName() + " failed", e);
+        } finally {
+            restoreDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        logger.info("Database restored from {} in {} ms", backup.getFileName(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Deletes the backups beyond the retention count or older than the retention age.
+     * The most recent backup is always kept.
+     */
+    void prune() {
+        List<Path> backups = listBackups();
+        Instant oldest = Instant.now().minus(retentionAge);
+        for (int i = 1; i < backups.size(); i++) {
+            Path backup = backups.get(i);
+            try {
+                if (i >= retentionCount || Files.getLastModifiedTime(backup).toInstant().isBefore(oldest)) {
+                    Files.deleteIfExists(backup);
+                    logger.info("Backup pruned: {}", backup.getFileName());
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to prune backup {}: {}", backup.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private static String fingerprintOf(Path backup) {
+        Matcher matcher = BACKUP_FILE.matcher(backup.getFileName().toString());
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            // Let a running backup finish: an interrupted one leaves no file behind anyway
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.apifactory.clientcontractapi.service;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of the deletion of a client, run in the background by {@link ClientDeletionService}.
+ * Updated by the deletion thread, read by status requests.
+ */
+@Getter
+public class ClientDeletionJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final UUID id = UUID.randomUUID();
+    private final UUID clientId;
+    private final long contractCount;  // contracts of the client when the deletion was requested
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile Status status = Status.PENDING;
+    private volatile long contractsClosed;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    ClientDeletionJob(UUID clientId, long contractCount) {
+        this.clientId = clientId;
+        this.contractCount = contractCount;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void started() {
+        status = Status.RUNNING;
+    }
+
+    void progressed(int contracts) {
+        contractsClosed += contracts; // single writer: the deletion thread
+    }
+
+    void completed() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void failed(String message) {
+        error = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+}
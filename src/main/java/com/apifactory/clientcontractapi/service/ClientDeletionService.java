@@ -0,0 +1,144 @@
+package com.apifactory.clientcontractapi.service;
+
+import com.apifactory.clientcontractapi.repository.ContractRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes clients, in the background for clients with many contracts.
+ * <p>
+ * Up to {@code clients.deletion.async-threshold} contracts, the client is deleted right away by
+ * {@link ClientService#deleteClient}: one bulk UPDATE closes its contracts. Above, a job closes the contracts
+ * {@code clients.deletion.chunk-size} at a time, each chunk in its own transaction so that locks are held for one
+ * chunk only, then deletes the client. Jobs run one at a time on a dedicated thread; their status is kept for
+ * {@code clients.deletion.retention} after they finish. A job still running at shutdown stops after its current
+ * chunk: the client is kept, with the contracts not closed yet.
+ * Not annotated with @Transactional on purpose: every chunk must commit on its own.
+ */
+@Service
+public class ClientDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientDeletionService.class);
+
+    private final ClientService clientService;
+    private final ContractRepository contractRepository;
+    private final long asyncThreshold;
+    private final int chunkSize;
+
+    private final Cache<UUID, ClientDeletionJob> jobs;
+    private final Map<UUID, ClientDeletionJob> activeJobsByClient = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "client-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean shuttingDown;
+
+    public ClientDeletionService(ClientService clientService, ContractRepository contractRepository,
+            @Value("${clients.deletion.async-threshold:10000}") long asyncThreshold,
+            @Value("${clients.deletion.chunk-size:5000}") int chunkSize,
+            @Value("${clients.deletion.retention:1h}") Duration retention) {
+        this.clientService = clientService;
+        this.contractRepository = contractRepository;
+        this.asyncThreshold = asyncThreshold;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(retention).build();
+    }
+
+    /**
+     * Deletes a client now, or starts a background deletion when it has more contracts than the threshold.
+     *
+     * @param clientId the client's UUID
+     * @return empty when the client was deleted, otherwise the background job (an already running one if any)
+     * @throws IllegalArgumentException if the client does not exist
+     */
+    public Optional<ClientDeletionJob> deleteClient(UUID clientId) {
+        ClientDeletionJob active = activeJobsByClient.get(clientId);
+        if (active != null) {
+            return Optional.of(active);
+        }
+        clientService.getClientById(clientId); // fails fast for unknown clients
+
+        long contractCount = contractRepository.countByClientId(clientId);
+        if (contractCount <= asyncThreshold) {
+            clientService.deleteClient(clientId);
+            return Optional.empty();
+        }
+
+        ClientDeletionJob job = new ClientDeletionJob(clientId, contractCount);
+        ClientDeletionJob existing = activeJobsByClient.putIfAbsent(clientId, job);
+        if (existing != null) {
+            return Optional.of(existing);
+        }
+        jobs.put(job.getId(), job);
+        logger.info("Client {} has {} contracts: deletion {} runs in the background", clientId, contractCount, job.getId());
+        executor.execute(() -> run(job));
+        return Optional.of(job);
+    }
+
+    /**
+     * Retrieves a background deletion by its id.
+     *
+     * @param jobId the job UUID
+     * @return the job, empty if unknown or expired
+     */
+    public Optional<ClientDeletionJob> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    private void run(ClientDeletionJob job) {
+        long start = System.nanoTime();
+        job.started();
+        jobs.put(job.getId(), job);
+        try {
+            int closed;
+            while ((closed = clientService.closeContractsChunk(job.getClientId(), chunkSize)) > 0) {
+                job.progressed(closed);
+                if (shuttingDown) {
+                    throw new IllegalStateException("stopped by the application shutdown");
+                }
+            }
+            // Also closes the contracts created since the last chunk, if any
+            job.progressed(clientService.deleteClient(job.getClientId()));
+            job.completed();
+            logger.info("Deletion {} of client {} completed: {} contracts closed in {} ms", job.getId(),
+                    job.getClientId(), job.getContractsClosed(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            job.failed(e.getMessage());
+            logger.error("❌ Deletion {} of client {} failed after {} contracts: {}", job.getId(), job.getClientId(),
+                    job.getContractsClosed(), e.getMessage());
+        } finally {
+            jobs.put(job.getId(), job); // retention counts from the end of the job
+            activeJobsByClient.remove(job.getClientId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        executor.shutdown();
+        try {
+            // Not interrupted: a running job stops between two chunks, each committed with the client's total
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,18 +3,23 @@ package com.apifactory.clientcontractapi.service;
 import com.apifactory.clientcontractapi.model.Client;
 import com.apifactory.clientcontractapi.model.ClientType;
 import com.apifactory.clientcontractapi.model.Company;
-import com.apifactory.clientcontractapi.model.Contract;
 import com.apifactory.clientcontractapi.model.Person;
 import com.apifactory.clientcontractapi.repository.ClientRepository;
 import com.apifactory.clientcontractapi.repository.ContractRepository;
+
+import jakarta.persistence.EntityManager;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for managing client business logic.
@@ -26,10 +31,18 @@ public class ClientService {
     private static final Logger logger = LoggerFactory.getLogger(ClientService.class);
     private final ClientRepository clientRepository;
     private final ContractRepository contractRepository;
+    private final ContractTotalService contractTotalService;
+    private final ContractCostHistoryService contractCostHistoryService;
+    private final EntityManager entityManager;
 
-    public ClientService(ClientRepository clientRepository, ContractRepository contractRepository) {
+    public ClientService(ClientRepository clientRepository, ContractRepository contractRepository,
+            ContractTotalService contractTotalService, ContractCostHistoryService contractCostHistoryService,
+            EntityManager entityManager) {
         this.clientRepository = clientRepository;
         this.contractRepository = contractRepository;
+        this.contractTotalService = contractTotalService;
+        this.contractCostHistoryService = contractCostHistoryService;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -44,24 +57,50 @@ public class ClientService {
     }
 
     /**
-     * Retrieves all clients from the database.
+     * Retrieves one page of clients ordered by id (keyset pagination).
      *
-     * @return list of all clients
+     * @param afterId the id of the last client already returned, or null for the first page
+     * @param limit   the maximum number of clients to return
+     * @return clients following {@code afterId}, ordered by id
      */
-    public List<Client> getAllClients() {
-        logger.info("Fetching all clients from the database");
-        return clientRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Client> getClientsAfter(UUID afterId, int limit) {
+        logger.debug("Fetching {} clients after {}", limit, afterId);
+        if (afterId == null) {
+            return clientRepository.findAllByOrderByIdAsc(Limit.of(limit));
+        }
+        return clientRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    /**
+     * Pushes every client to the given consumer while reading them from a database cursor.
+     * Each client is detached once consumed, so memory stays constant whatever the table size.
+     *
+     * @param consumer receives the clients in id order
+     */
+    @Transactional(readOnly = true)
+    public void streamAllClients(Consumer<Client> consumer) {
+        logger.debug("Streaming all clients from the database");
+        try (Stream<Client> clients = clientRepository.streamAll()) {
+            clients.forEach(client -> {
+                consumer.accept(client);
+                entityManager.detach(client);
+            });
+        }
     }
 
     /**
      * Retrieves a client by its unique identifier.
+     * Served from the Hibernate second-level cache ("client" region) once loaded: no SELECT, and each
+     * call still gets its own entity instance.
      *
      * @param id the client's UUID
      * @return the client entity if found
      * @throws IllegalArgumentException if the client does not exist
      */
+    @Transactional(readOnly = true)
     public Client getClientById(UUID id) {
-        logger.info("Fetching client with ID: {}", id);
+        logger.debug("Fetching client with ID: {}", id);
         return clientRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Client not found with id: " + id));
     }
@@ -98,24 +137,47 @@ public class ClientService {
 
     /**
      * Deletes a client and closes all their active contracts by setting their end
-     * date.
+     * date. Every contract of the client is unlinked from it (they are kept for history).
+     * <p>
+     * The contracts are updated by one set-based UPDATE, whatever their number; very large clients go through
+     * {@link ClientDeletionService}, which first closes them chunk by chunk.
      *
      * @param id the client's UUID
+     * @return the number of contracts unlinked from the client
      */
-    public void deleteClient(UUID id) {
+    public int deleteClient(UUID id) {
         Client client = getClientById(id);
         logger.info("Deleting client {} ({}) and updating active contracts", id, client.getName());
 
-        // Close all active contracts for this client
-        List<Contract> activeContracts = contractRepository.findActiveContractsByClientId(id, null);
-        for (Contract contract : activeContracts) {
-            contract.setEndDate(LocalDateTime.now());
-            contract.setClient(null); // detach client to avoid FK violation (error find during testing)
-        }
-        contractRepository.saveAll(activeContracts); // save the past contract from this client, but delete the client in DB
-        contractRepository.flush(); // ensure DB state before client deletion
+        // Close the active contracts and unlink all of them (FK), without loading them
+        LocalDateTime now = LocalDateTime.now();
+        int detached = contractRepository.closeAndDetachByClientId(id, now);
+        contractTotalService.clientDeleted(id);
+        contractCostHistoryService.clientContractsClosed(id, now);
+
+        clientRepository.deleteById(id); // the bulk update cleared the persistence context
+        logger.info("Client {} deleted successfully with {} contracts closed", id, detached);
+        return detached;
+    }
 
-        clientRepository.delete(client);
-        logger.info("Client {} deleted successfully with {} contracts closed", id, activeContracts.size());
+    /**
+     * Closes and unlinks one chunk of the contracts of a client, in its own transaction.
+     * The client's total is rebuilt from its remaining contracts in the same transaction, so it stays
+     * right while the deletion runs and after a deletion that failed halfway.
+     *
+     * @param id        the client's UUID
+     * @param chunkSize the maximum number of contracts to update
+     * @return the number of contracts updated, 0 once the client has no contract left
+     */
+    public int closeContractsChunk(UUID id, int chunkSize) {
+        List<Long> contractIds = contractRepository.findIdsByClientId(id, Limit.of(chunkSize));
+        if (contractIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        contractCostHistoryService.contractsClosed(contractIds, now);
+        int closed = contractRepository.closeAndDetachByIds(contractIds, now);
+        contractTotalService.rebuild(id);
+        return closed;
     }
 }
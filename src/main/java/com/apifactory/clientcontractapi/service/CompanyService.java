@@ -44,8 +44,9 @@ public class CompanyService {
      *
      * @return list of companies
      */
+    @Transactional(readOnly = true)
     public List<Company> getAllCompanies() {
-        logger.info("Fetching all companies from database");
+        logger.debug("Fetching all companies from database");
         return companyRepository.findAll();
     }
 
@@ -55,8 +56,9 @@ public class CompanyService {
      * @param id the company's UUID
      * @return the company if found
      */
+    @Transactional(readOnly = true)
     public Company getCompanyById(UUID id) {
-        logger.info("Fetching company with ID: {}", id);
+        logger.debug("Fetching company with ID: {}", id);
         return companyRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Company not found with id: " + id));
     }
@@ -0,0 +1,164 @@
+package com.apifactory.clientcontractapi.service;
+
+import com.apifactory.clientcontractapi.dto.contract.ContractBatchResponse;
+import com.apifactory.clientcontractapi.dto.contract.ContractBatchRowResult;
+import com.apifactory.clientcontractapi.dto.contract.ContractRequest;
+import com.apifactory.clientcontractapi.mapper.EntityMapper;
+import com.apifactory.clientcontractapi.model.Contract;
+import com.apifactory.clientcontractapi.repository.ClientRepository;
+import com.apifactory.clientcontractapi.repository.ContractRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk contract ingestion.
+ * <p>
+ * Rows are consumed in chunks: each chunk resolves its client ids in one query, validates every row,
+ * and inserts the valid ones through Hibernate JDBC batching in its own transaction. The persistence
+ * context is cleared after each chunk, so memory stays bounded whatever the number of rows.
+ * <p>
+ * Not annotated with @Transactional on purpose: one transaction per chunk keeps locks short.
+ */
+@Service
+public class ContractBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractBatchService.class);
+    private final ContractRepository contractRepository;
+    private final ClientRepository clientRepository;
+    private final ContractTotalService contractTotalService;
+    private final ContractCostHistoryService contractCostHistoryService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ContractBatchService(ContractRepository contractRepository, ClientRepository clientRepository,
+            ContractTotalService contractTotalService, ContractCostHistoryService contractCostHistoryService,
+            Validator validator, EntityManager entityManager, PlatformTransactionManager transactionManager,
+            @Value("${contracts.batch.chunk-size:1000}") int chunkSize) {
+        this.contractRepository = contractRepository;
+        this.clientRepository = clientRepository;
+        this.contractTotalService = contractTotalService;
+        this.contractCostHistoryService = contractCostHistoryService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates contracts from a stream of requests.
+     * Invalid rows are rejected individually; a malformed input stops the ingestion at that row
+     * (the rows before it are kept).
+     *
+     * @param requests the rows to ingest, read lazily
+     * @return one result per row, in input order
+     */
+    public ContractBatchResponse createContracts(Iterator<ContractRequest> requests) {
+        ContractBatchResponse response = new ContractBatchResponse();
+        List<ContractRequest> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        String malformedInput = null;
+
+        while (true) {
+            ContractRequest request;
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                request = requests.next();
+            } catch (RuntimeException e) {
+                malformedInput = e.getMessage();
+                break;
+            }
+
+            chunk.add(request);
+            index++;
+            if (chunk.size() == chunkSize) {
+                insertChunk(chunk, index - chunk.size(), response);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, index - chunk.size(), response);
+        }
+        if (malformedInput != null) {
+            response.add(ContractBatchRowResult.rejected(index, "Malformed input, ingestion stopped: " + malformedInput));
+        }
+
+        logger.info("Batch ingestion done: {} contracts created, {} rejected", response.getCreated(), response.getRejected());
+        return response;
+    }
+
+    private void insertChunk(List<ContractRequest> chunk, int firstIndex, ContractBatchResponse response) {
+        List<ContractBatchRowResult> results = transactionTemplate.execute(status -> {
+            Set<UUID> clientIds = chunk.stream()
+                    .map(ContractRequest::getClientId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<UUID> existingClientIds = clientIds.isEmpty() ? Set.of() : clientRepository.findExistingIds(clientIds);
+
+            // Validate every row first, keeping the position of each accepted contract
+            List<Contract> contracts = new ArrayList<>();
+            List<ContractBatchRowResult> rows = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                ContractRequest request = chunk.get(i);
+                String error = validate(request, existingClientIds);
+                if (error != null) {
+                    rows.add(ContractBatchRowResult.rejected(firstIndex + i, error));
+                    continue;
+                }
+                // getReferenceById: the client is known to exist, no need to load it
+                contracts.add(EntityMapper.toContractEntity(request, clientRepository.getReferenceById(request.getClientId())));
+                rows.add(null); // filled once the id is assigned
+            }
+
+            contractRepository.saveAll(contracts);
+            contractRepository.flush();
+            contractTotalService.contractsCreated(contracts);
+            contractCostHistoryService.contractsCreated(contracts);
+
+            Iterator<Contract> saved = contracts.iterator();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i) == null) {
+                    rows.set(i, ContractBatchRowResult.created(firstIndex + i, saved.next().getId()));
+                }
+            }
+            entityManager.flush(); // totals and cost history, clear() would drop their pending writes
+            entityManager.clear(); // release the chunk from the persistence context
+            return rows;
+        });
+        results.forEach(response::add);
+    }
+
+    private String validate(ContractRequest request, Set<UUID> existingClientIds) {
+        Set<ConstraintViolation<ContractRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!existingClientIds.contains(request.getClientId())) {
+            return "Client not found: " + request.getClientId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.apifactory.clientcontractapi.service;
+
+import com.apifactory.clientcontractapi.model.Contract;
+import com.apifactory.clientcontractapi.model.ContractCostHistory;
+import com.apifactory.clientcontractapi.repository.ContractCostHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records every cost amount of the contracts in {@link ContractCostHistory}, in the transaction of the contract write,
+ * so the total of a client can be computed at any past instant.
+ * <p>
+ * A contract starts with an amount valid from its startDate; a cost update closes the current amount and appends
+ * the new one, and deleting the client closes the current amounts of its contracts.
+ */
+@Service
+@Transactional // Do not remove, important to prevent error during actions on the class
+public class ContractCostHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractCostHistoryService.class);
+    private final ContractCostHistoryRepository historyRepository;
+
+    public ContractCostHistoryService(ContractCostHistoryRepository historyRepository) {
+        this.historyRepository = historyRepository;
+    }
+
+    /**
+     * Records the initial amount of a newly created contract.
+     *
+     * @param contract the persisted contract
+     */
+    public void contractCreated(Contract contract) {
+        historyRepository.save(new ContractCostHistory(contract, contract.getStartDate()));
+    }
+
+    /**
+     * Records the initial amounts of a batch of newly created contracts.
+     *
+     * @param contracts the persisted contracts
+     */
+    public void contractsCreated(List<Contract> contracts) {
+        historyRepository.saveAll(contracts.stream()
+                .map(contract -> new ContractCostHistory(contract, contract.getStartDate()))
+                .toList());
+    }
+
+    /**
+     * Closes the current amount of a contract and appends its new one.
+     *
+     * @param contract the updated contract
+     * @param now      the instant the new amount applies from
+     */
+    public void costAmountChanged(Contract contract, LocalDateTime now) {
+        historyRepository.closeCurrentByContractId(contract.getId(), now);
+        historyRepository.save(new ContractCostHistory(contract, now));
+    }
+
+    /**
+     * Closes the current amounts of all the contracts of a deleted client.
+     *
+     * @param clientId the deleted client
+     * @param now      the instant of the deletion
+     */
+    public void clientContractsClosed(UUID clientId, LocalDateTime now) {
+        historyRepository.closeCurrentByClientId(clientId, now);
+    }
+
+    /**
+     * Closes the current amounts of contracts detached from a deleted client.
+     *
+     * @param contractIds the detached contracts
+     * @param now         the instant they were detached
+     */
+    public void contractsClosed(Collection<Long> contractIds, LocalDateTime now) {
+        historyRepository.closeCurrentByContractIds(contractIds, now);
+    }
+
+    /**
+     * Returns the total cost of the active contracts of a client at a past instant.
+     * A contract counts with the amount it had at that instant, if it was not ended before that day.
+     *
+     * @param clientId the client ID
+     * @param at       the instant
+     * @return total active contract amount at that instant
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getActiveAmountAt(UUID clientId, LocalDateTime at) {
+        logger.debug("Calculating total active contract cost for client {} at {}", clientId, at);
+        return historyRepository.sumActiveAmountAt(clientId, at, at.toLocalDate().atStartOfDay());
+    }
+}
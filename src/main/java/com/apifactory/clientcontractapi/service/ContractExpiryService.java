@@ -0,0 +1,77 @@
+package com.apifactory.clientcontractapi.service;
+
+import com.apifactory.clientcontractapi.repository.ContractRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Nightly sweep flipping the ACTIVE contracts whose endDate has passed to EXPIRED, then rebuilding the
+ * client totals that included them.
+ * <p>
+ * Runs just after midnight, when contracts stop being active, and once on startup to catch up with a missed night
+ * (before the application reports ready). Until it runs, contracts ending the day before are still read as active.
+ * Not annotated with @Transactional on purpose: each batch of {@code contracts.expiry.batch-size} contracts
+ * commits on its own, so locks are held for one batch only.
+ */
+@Service
+public class ContractExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractExpiryService.class);
+
+    private final ContractRepository contractRepository;
+    private final ContractTotalService contractTotalService;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+
+    public ContractExpiryService(ContractRepository contractRepository, ContractTotalService contractTotalService,
+            PlatformTransactionManager transactionManager,
+            @Value("${contracts.expiry.batch-size:1000}") int batchSize) {
+        this.contractRepository = contractRepository;
+        this.contractTotalService = contractTotalService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        expireContracts();
+    }
+
+    /**
+     * Expires the active contracts whose endDate is before today, then reconciles the client totals.
+     *
+     * @return the number of contracts expired
+     */
+    @Scheduled(cron = "${contracts.expiry.cron}")
+    public int expireContracts() {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = LocalDate.now().atStartOfDay();
+        int expired = 0;
+        Integer batch;
+        do {
+            batch = transaction.execute(status -> {
+                List<Long> ids = contractRepository.findIdsToExpire(cutoff, Limit.of(batchSize));
+                return ids.isEmpty() ? 0 : contractRepository.expireByIds(ids, LocalDateTime.now());
+            });
+            expired += batch;
+        } while (batch > 0);
+
+        contractTotalService.reconcileExpiredTotals();
+        logger.info("Expired {} contracts ended before {} in {} ms", expired, cutoff.toLocalDate(),
+                (System.nanoTime() - start) / 1_000_000);
+        return expired;
+    }
+}
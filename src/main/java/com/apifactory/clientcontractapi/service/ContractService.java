@@ -1,18 +1,31 @@
 package com.apifactory.clientcontractapi.service;
 
+import com.apifactory.clientcontractapi.dto.contract.ClientTotalResponse;
+import com.apifactory.clientcontractapi.dto.contract.ContractResponse;
 import com.apifactory.clientcontractapi.model.Client;
+import com.apifactory.clientcontractapi.model.ClientType;
 import com.apifactory.clientcontractapi.model.Contract;
 import com.apifactory.clientcontractapi.repository.ClientRepository;
 import com.apifactory.clientcontractapi.repository.ContractRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for managing contract business logic.
@@ -21,14 +34,32 @@ import java.util.UUID;
 @Transactional // Do not remove, important to prevent error during actions on the class
 public class ContractService {
 
+    /** Cursor position before any change: contracts are never updated before it. */
+    public static final LocalDateTime FEED_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private static final Logger logger = LoggerFactory.getLogger(ContractService.class);
+    // H2 compares UUIDs as unsigned numbers, UUID.compareTo as signed ones
+    private static final Comparator<UUID> DATABASE_UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
     private final ContractRepository contractRepository;
     private final ClientRepository clientRepository;
+    private final ContractTotalService contractTotalService;
+    private final ContractCostHistoryService contractCostHistoryService;
+    private final Duration changeFeedSettleDelay;
+    private final int totalsChunkSize;
 
 
-    public ContractService(ContractRepository contractRepository, ClientRepository clientRepository) {
+    public ContractService(ContractRepository contractRepository, ClientRepository clientRepository,
+            ContractTotalService contractTotalService, ContractCostHistoryService contractCostHistoryService,
+            @Value("${contracts.changes.settle-delay:5s}") Duration changeFeedSettleDelay,
+            @Value("${contracts.totals.chunk-size:1000}") int totalsChunkSize) {
         this.contractRepository = contractRepository;
         this.clientRepository = clientRepository;
+        this.contractTotalService = contractTotalService;
+        this.contractCostHistoryService = contractCostHistoryService;
+        this.changeFeedSettleDelay = changeFeedSettleDelay;
+        this.totalsChunkSize = Math.max(1, totalsChunkSize);
     }
 
     /**
@@ -40,7 +71,10 @@ public class ContractService {
      */
     public Contract createContract(Contract contract) {
         logger.info("Creating contract for client {}", contract.getClient().getId());
-        return contractRepository.save(contract);
+        Contract saved = contractRepository.save(contract);
+        contractTotalService.contractCreated(saved);
+        contractCostHistoryService.contractCreated(saved);
+        return saved;
     }
 
     /**
@@ -67,22 +101,30 @@ public class ContractService {
         logger.info("Creating contract for client {} (start={}, end={}, amount={})",
                 clientId, contract.getStartDate(), contract.getEndDate(), costAmount);
 
-        return contractRepository.save(contract);
+        Contract saved = contractRepository.save(contract);
+        contractTotalService.contractCreated(saved);
+        contractCostHistoryService.contractCreated(saved);
+        return saved;
     }
 
     /**
      * Updates a contract's cost amount and automatically refreshes its updateDate.
+     * The previous amount is kept in the cost history.
      *
      * @param id        the contract ID
      * @param newAmount the new cost amount
      * @return the updated contract
      */
     public Contract updateCostAmount(Long id, BigDecimal newAmount) {
-        Contract contract = contractRepository.findById(id)
+        Contract contract = contractRepository.findWithClientById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Contract not found"));
+        BigDecimal previousAmount = contract.getCostAmount();
         contract.setCostAmount(newAmount);
         logger.info("Updated contract {} with new cost amount {}", id, newAmount);
-        return contractRepository.save(contract);
+        Contract saved = contractRepository.save(contract);
+        contractTotalService.costAmountChanged(saved, previousAmount);
+        contractCostHistoryService.costAmountChanged(saved, LocalDateTime.now());
+        return saved;
     }
 
     /**
@@ -92,23 +134,186 @@ public class ContractService {
      * @param updateDate optional filter; if null, all active contracts are returned
      * @return list of active contracts
      */
+    @Transactional(readOnly = true)
     public List<Contract> getActiveContracts(UUID clientId, LocalDateTime updateDate) {
         if (updateDate != null) {
-            logger.info("Fetching active contracts for client {} updated since {}", clientId, updateDate);
+            logger.debug("Fetching active contracts for client {} updated since {}", clientId, updateDate);
         } else {
-            logger.info("Fetching all active contracts for client {}", clientId);
+            logger.debug("Fetching all active contracts for client {}", clientId);
         }
         return contractRepository.findActiveContractsByClientId(clientId, updateDate);
     }
 
+    /**
+     * Retrieves active contracts for a client as response DTOs, in a single query.
+     *
+     * @param clientId   the UUID of the client
+     * @param updateDate optional filter; if null, all active contracts are returned
+     * @return list of active contracts
+     */
+    @Transactional(readOnly = true)
+    public List<ContractResponse> getActiveContractResponses(UUID clientId, LocalDateTime updateDate) {
+        logger.debug("Fetching active contracts of client {} (updated since {})", clientId, updateDate);
+        return contractRepository.findActiveContractResponsesByClientId(clientId, updateDate);
+    }
+
+    /**
+     * Upper bound of the change feed: changes more recent than the settle delay are not served yet.
+     * updateDate is set by the application before commit, so a transaction committing late can
+     * publish a row older than rows already read; the delay gives such transactions time to commit.
+     *
+     * @return the exclusive updateDate bound to read the change feed up to
+     */
+    public LocalDateTime changeFeedHorizon() {
+        return LocalDateTime.now().minus(changeFeedSettleDelay).truncatedTo(ChronoUnit.MICROS); // column precision
+    }
+
+    /**
+     * Retrieves one page of the change feed, ordered by (updateDate, id).
+     *
+     * @param afterDate updateDate of the last change already read ({@link #FEED_START} to read from the beginning)
+     * @param afterId   id of the last change already read
+     * @param until     exclusive upper bound, from {@link #changeFeedHorizon()}
+     * @param limit     maximum number of changes
+     * @return the following changes
+     */
+    @Transactional(readOnly = true)
+    public List<ContractResponse> getChanges(LocalDateTime afterDate, long afterId, LocalDateTime until, int limit) {
+        logger.debug("Fetching {} contract changes after ({}, {})", limit, afterDate, afterId);
+        return contractRepository.findChangesAfter(afterDate, afterId, until, Limit.of(limit));
+    }
+
+    /**
+     * Pushes every change after the cursor (and before {@code until}) to the consumer,
+     * while reading them from a database cursor.
+     *
+     * @param afterDate updateDate of the last change already read
+     * @param afterId   id of the last change already read
+     * @param until     exclusive upper bound, from {@link #changeFeedHorizon()}
+     * @param consumer  receives the changes in (updateDate, id) order
+     */
+    @Transactional(readOnly = true)
+    public void streamChanges(LocalDateTime afterDate, long afterId, LocalDateTime until, Consumer<ContractResponse> consumer) {
+        logger.debug("Streaming contract changes after ({}, {})", afterDate, afterId);
+        try (Stream<ContractResponse> changes = contractRepository.streamChangesAfter(afterDate, afterId, until)) {
+            changes.forEach(consumer);
+        }
+    }
+
+    /**
+     * Start of the renewal window: active contracts all end after it (start of the current day).
+     *
+     * @return the endDate to read the renewal pipeline from
+     */
+    public LocalDateTime renewalWindowStart() {
+        return LocalDate.now().atStartOfDay();
+    }
+
+    /**
+     * End of a renewal window of {@code days} days: contracts ending before the end of the day, {@code days} days from now.
+     *
+     * @param days length of the window, 0 for the contracts ending today
+     * @return the exclusive endDate bound of the window
+     * @throws IllegalArgumentException if days is negative
+     */
+    public LocalDateTime renewalWindowEnd(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("days must be positive or zero: " + days);
+        }
+        return LocalDate.now().plusDays(days + 1L).atStartOfDay();
+    }
+
+    /**
+     * Retrieves one page of the active contracts to renew, ordered by (endDate, id).
+     *
+     * @param afterDate endDate of the last contract already read ({@link #renewalWindowStart()} for the first page)
+     * @param afterId   id of the last contract already read
+     * @param until     exclusive upper bound, from {@link #renewalWindowEnd(int)}
+     * @param type      optional client type
+     * @param limit     maximum number of contracts
+     * @return the following contracts
+     */
+    @Transactional(readOnly = true)
+    public List<ContractResponse> getRenewals(LocalDateTime afterDate, long afterId, LocalDateTime until, ClientType type,
+            int limit) {
+        logger.debug("Fetching {} contracts to renew before {} after ({}, {})", limit, until, afterDate, afterId);
+        return contractRepository.findRenewalsAfter(afterDate, afterId, until, type, Limit.of(limit));
+    }
+
+    /**
+     * Pushes every active contract to renew after the cursor (and ending before {@code until}) to the consumer,
+     * while reading them from a database cursor.
+     *
+     * @param afterDate endDate of the last contract already read
+     * @param afterId   id of the last contract already read
+     * @param until     exclusive upper bound, from {@link #renewalWindowEnd(int)}
+     * @param type      optional client type
+     * @param consumer  receives the contracts in (endDate, id) order
+     */
+    @Transactional(readOnly = true)
+    public void streamRenewals(LocalDateTime afterDate, long afterId, LocalDateTime until, ClientType type,
+            Consumer<ContractResponse> consumer) {
+        logger.debug("Streaming contracts to renew before {} after ({}, {})", until, afterDate, afterId);
+        try (Stream<ContractResponse> renewals = contractRepository.streamRenewalsAfter(afterDate, afterId, until, type)) {
+            renewals.forEach(consumer);
+        }
+    }
+
     /**
      * Calculates the total sum of active contract amounts for a given client.
+     * Served from the per-client running total, see {@link ContractTotalService}.
      *
      * @param clientId the client ID
      * @return total active contract amount
      */
+    @Transactional(readOnly = true)
     public BigDecimal getTotalActiveContractAmount(UUID clientId) {
-        logger.info("Calculating total active contract cost for client {}", clientId);
-        return contractRepository.sumActiveContractsByClientId(clientId);
+        logger.debug("Calculating total active contract cost for client {}", clientId);
+        return contractTotalService.getActiveAmount(clientId);
+    }
+
+    /**
+     * Calculates the total sum of the active contract amounts of a client at a past instant,
+     * from the cost history, see {@link ContractCostHistoryService}.
+     *
+     * @param clientId the client ID
+     * @param at       the instant
+     * @return total active contract amount at that instant
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalActiveContractAmountAt(UUID clientId, LocalDateTime at) {
+        return contractCostHistoryService.getActiveAmountAt(clientId, at);
+    }
+
+    /**
+     * Pushes the active totals of the selected clients to the consumer, computed with grouped queries
+     * instead of one query per client: the ids are sent {@code contracts.totals.chunk-size} at a time,
+     * all the clients of a type are read from a single database cursor.
+     *
+     * @param clientIds optional ids of the clients; unknown ids are left out
+     * @param type      optional client type; restricts {@code clientIds} when both are given
+     * @param consumer  receives one total per client, ordered by client id
+     * @throws IllegalArgumentException if neither clientIds nor type is given
+     */
+    @Transactional(readOnly = true)
+    public void streamActiveTotals(Collection<UUID> clientIds, ClientType type, Consumer<ClientTotalResponse> consumer) {
+        if (clientIds == null || clientIds.isEmpty()) {
+            if (type == null) {
+                throw new IllegalArgumentException("clientIds or type is required");
+            }
+            logger.debug("Streaming active totals of {} clients", type);
+            try (Stream<ClientTotalResponse> totals = contractRepository.streamActiveTotalsByClientType(type)) {
+                totals.forEach(consumer);
+            }
+            return;
+        }
+
+        logger.debug("Computing active totals of {} clients", clientIds.size());
+        List<UUID> ids = new ArrayList<>(clientIds);
+        ids.sort(DATABASE_UUID_ORDER); // chunks follow each other in the order of their rows
+        for (int from = 0; from < ids.size(); from += totalsChunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + totalsChunkSize, ids.size()));
+            contractRepository.sumActiveContractsByClientIds(chunk, type).forEach(consumer);
+        }
     }
 }
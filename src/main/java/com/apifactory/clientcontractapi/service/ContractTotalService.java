@@ -0,0 +1,198 @@
+package com.apifactory.clientcontractapi.service;
+
+import com.apifactory.clientcontractapi.model.ClientContractTotal;
+import com.apifactory.clientcontractapi.model.Contract;
+import com.apifactory.clientcontractapi.model.ContractStatus;
+import com.apifactory.clientcontractapi.repository.ActiveContractsSummary;
+import com.apifactory.clientcontractapi.repository.ClientContractTotalRepository;
+import com.apifactory.clientcontractapi.repository.ContractRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Maintains the per-client {@link ClientContractTotal} projection.
+ * <p>
+ * Contract writes apply their delta to the projection in the same transaction. Contracts
+ * reaching their endDate are handled by {@link #reconcileExpiredTotals()}, once the nightly sweep expired them:
+ * until it runs, a stale total is detected through its {@code nextExpiry} and recomputed from the contracts.
+ * <p>
+ * Each write locks the total row of its client until commit: writes on one client are serialised, and a
+ * transaction touching many clients (batch inserts, reconciliation) holds many locks and may hit H2's lock
+ * timeout under concurrent load. The locks are always taken in client id order, so such transactions wait
+ * for each other instead of deadlocking.
+ */
+@Service
+@Transactional // Do not remove, important to prevent error during actions on the class
+public class ContractTotalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractTotalService.class);
+    private final ClientContractTotalRepository totalRepository;
+    private final ContractRepository contractRepository;
+
+    public ContractTotalService(ClientContractTotalRepository totalRepository, ContractRepository contractRepository) {
+        this.totalRepository = totalRepository;
+        this.contractRepository = contractRepository;
+    }
+
+    /**
+     * Returns the total cost of the active contracts of a client.
+     * Served from the projection; falls back to an aggregate query when the projection is missing or stale.
+     *
+     * @param clientId the client ID
+     * @return total active contract amount
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getActiveAmount(UUID clientId) {
+        LocalDateTime cutoff = startOfToday();
+        return totalRepository.findById(clientId)
+                .filter(total -> isFresh(total, cutoff))
+                .map(ClientContractTotal::getActiveAmount)
+                .orElseGet(() -> contractRepository.sumActiveContractsByClientId(clientId));
+    }
+
+    /**
+     * Adds a newly created contract to the total of its client (if the contract is active).
+     *
+     * @param contract the persisted contract
+     */
+    public void contractCreated(Contract contract) {
+        if (contract.getClient() == null || !isActive(contract)) {
+            return;
+        }
+        applyDelta(contract.getClient().getId(), amountOf(contract.getCostAmount()), 1, contract.getEndDate());
+    }
+
+    /**
+     * Adds a batch of newly created contracts, applying one delta per client in client id order.
+     *
+     * @param contracts the persisted contracts
+     */
+    public void contractsCreated(List<Contract> contracts) {
+        Map<UUID, Delta> deltas = new TreeMap<>(); // lock order
+        for (Contract contract : contracts) {
+            if (contract.getClient() != null && isActive(contract)) {
+                deltas.merge(contract.getClient().getId(),
+                        new Delta(amountOf(contract.getCostAmount()), 1, contract.getEndDate()), Delta::plus);
+            }
+        }
+        deltas.forEach((clientId, delta) -> applyDelta(clientId, delta.amount(), delta.count(), delta.nextExpiry()));
+    }
+
+    /**
+     * Applies a cost change of an active contract to the total of its client.
+     *
+     * @param contract       the updated contract
+     * @param previousAmount the cost amount before the update
+     */
+    public void costAmountChanged(Contract contract, BigDecimal previousAmount) {
+        if (contract.getClient() == null || !isActive(contract)) {
+            return;
+        }
+        BigDecimal delta = amountOf(contract.getCostAmount()).subtract(amountOf(previousAmount));
+        applyDelta(contract.getClient().getId(), delta, 0, null);
+    }
+
+    /**
+     * Drops the total of a deleted client (all their contracts are closed).
+     *
+     * @param clientId the deleted client's UUID
+     */
+    public void clientDeleted(UUID clientId) {
+        totalRepository.deleteById(clientId);
+    }
+
+    /**
+     * Recomputes the total of a client from its contracts.
+     *
+     * @param clientId the client ID
+     * @return the refreshed total
+     */
+    public ClientContractTotal rebuild(UUID clientId) {
+        return rebuild(lockTotal(clientId));
+    }
+
+    /**
+     * Rebuilds the totals that still include contracts whose endDate has passed.
+     * Called by {@link ContractExpiryService} once it marked these contracts EXPIRED.
+     */
+    public void reconcileExpiredTotals() {
+        List<UUID> staleClientIds = totalRepository.findStaleClientIds(startOfToday());
+        staleClientIds.stream().sorted().forEach(this::rebuild); // lock order
+        logger.info("Reconciled {} client totals with expired contracts", staleClientIds.size());
+    }
+
+    private void applyDelta(UUID clientId, BigDecimal amountDelta, long countDelta, LocalDateTime endDate) {
+        ClientContractTotal total = lockTotal(clientId);
+        if (!isFresh(total, startOfToday())) {
+            rebuild(total); // first write for this client, or an expiry not reconciled yet
+            return;
+        }
+
+        total.setActiveAmount(total.getActiveAmount().add(amountDelta));
+        total.setActiveCount(total.getActiveCount() + countDelta);
+        if (endDate != null && (total.getNextExpiry() == null || endDate.isBefore(total.getNextExpiry()))) {
+            total.setNextExpiry(endDate);
+        }
+        total.setUpdateDate(LocalDateTime.now());
+    }
+
+    // Creates the row of a client's first write, so that it can be locked like the others
+    private ClientContractTotal lockTotal(UUID clientId) {
+        totalRepository.insertIfAbsent(clientId);
+        return totalRepository.findForUpdate(clientId)
+                .orElseThrow(() -> new IllegalStateException("Missing contract total of client " + clientId));
+    }
+
+    // Called with the row locked: contracts committed meanwhile by other writers are all counted
+    private ClientContractTotal rebuild(ClientContractTotal total) {
+        contractRepository.flush(); // include contracts written earlier in this transaction
+        ActiveContractsSummary summary = contractRepository.summarizeActiveContractsByClientId(total.getClientId());
+        total.setActiveAmount(summary.getAmount());
+        total.setActiveCount(summary.getCount());
+        total.setNextExpiry(summary.getNextExpiry());
+        total.setUpdateDate(LocalDateTime.now());
+        return total;
+    }
+
+    // Same rule as the repository queries
+    private static boolean isActive(Contract contract) {
+        return contract.getStatus() == ContractStatus.ACTIVE;
+    }
+
+    // A total without updateDate was just created and never computed
+    private static boolean isFresh(ClientContractTotal total, LocalDateTime cutoff) {
+        return total.getUpdateDate() != null
+                && (total.getNextExpiry() == null || total.getNextExpiry().isAfter(cutoff));
+    }
+
+    // cost_amount is nullable for contracts created before it was validated
+    private static BigDecimal amountOf(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    private static LocalDateTime startOfToday() {
+        return LocalDate.now().atStartOfDay();
+    }
+
+    /** Contribution of several contracts of the same client. */
+    private record Delta(BigDecimal amount, long count, LocalDateTime nextExpiry) {
+
+        Delta plus(Delta other) {
+            LocalDateTime earliest = nextExpiry;
+            if (earliest == null || (other.nextExpiry != null && other.nextExpiry.isBefore(earliest))) {
+                earliest = other.nextExpiry;
+            }
+            return new Delta(amount.add(other.amount), count + other.count, earliest);
+        }
+    }
+}
@@ -45,8 +45,9 @@ public class PersonService {
      *
      * @return list of persons
      */
+    @Transactional(readOnly = true)
     public List<Person> getAllPersons() {
-        logger.info("Fetching all persons from database");
+        logger.debug("Fetching all persons from database");
         return personRepository.findAll();
     }
 
@@ -56,8 +57,9 @@ public class PersonService {
      * @param id the person's UUID
      * @return the person if found
      */
+    @Transactional(readOnly = true)
     public Person getPersonById(UUID id) {
-        logger.info("Fetching person with ID: {}", id);
+        logger.debug("Fetching person with ID: {}", id);
         return personRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Person not found with id: " + id));
     }
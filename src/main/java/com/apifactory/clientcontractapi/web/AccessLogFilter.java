@@ -0,0 +1,126 @@
+package com.apifactory.clientcontractapi.web;
+
+import com.apifactory.clientcontractapi.config.AccessLogProperties;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One structured line per request (method, route, status, latency), written to the {@code ACCESS} logger.
+ * <p>
+ * Requests are sampled per route (see {@link AccessLogProperties}); server errors, failures and
+ * slow requests are always logged. Runs first, so the latency includes authentication.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("ACCESS");
+    private static final String UNMATCHED_ROUTE = "-";
+
+    private final AccessLogProperties properties;
+
+    public AccessLogFilter(AccessLogProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || !accessLog.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (failure == null && request.isAsyncStarted()) {
+                // Streamed response: log once it is complete
+                request.getAsyncContext().addListener(new CompletionListener(request, response, start));
+            } else {
+                log(request, failure != null ? 500 : response.getStatus(), start,
+                        failure != null ? failure.getClass().getSimpleName() : null);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, int status, long start, String error) {
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+
+        boolean alwaysLogged = error != null || status >= 500
+                || durationMs >= properties.getSlowThreshold().toMillis();
+        if (!alwaysLogged && ThreadLocalRandom.current().nextDouble() >= properties.sampleRateOf(route)) {
+            return;
+        }
+
+        if (error != null) {
+            accessLog.info("method={} path={} route={} status={} durationMs={} error={}",
+                    request.getMethod(), request.getRequestURI(), route, status, durationMs, error);
+        } else {
+            accessLog.info("method={} path={} route={} status={} durationMs={}",
+                    request.getMethod(), request.getRequestURI(), route, status, durationMs);
+        }
+    }
+
+    private class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+        private String error;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response, long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            int status = error != null && response.getStatus() < 400 ? 500 : response.getStatus();
+            log(request, status, start, error);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            error = "AsyncTimeout"; // onComplete follows
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            error = event.getThrowable() != null ? event.getThrowable().getClass().getSimpleName() : "AsyncError";
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this); // listeners are dropped when async restarts
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.apifactory.clientcontractapi.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounds the number of API requests processed at the same time, by default to the size of the connection pool.
+ * <p>
+ * Every API request holds a JDBC connection for most of its duration: extra requests wait here (in order)
+ * instead of in the pool, and get a 503 with Retry-After once {@code concurrency.limit.acquire-timeout} is exceeded.
+ * With virtual threads, waiting requests cost almost nothing, this limit is what protects the database.
+ * <p>
+ * Streamed responses (NDJSON) may take minutes: they are bounded separately by {@code concurrency.limit.max-streams}
+ * and keep their permit until they complete, so slow consumers never starve the rest of the API.
+ * Requests asking for NDJSON wait for a stream permit upfront. The handler is only known once content negotiation
+ * ran, so any other request whose response turns out asynchronous (e.g. with a wildcard Accept) moves to a free
+ * stream permit when it returns, or keeps its API permit: either way, it holds one until the response completes.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1) // after the security chain: only authenticated requests take a permit
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final Semaphore streamPermits;
+    private final Duration acquireTimeout;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(
+            @Value("${concurrency.limit.enabled:true}") boolean enabled,
+            @Value("${concurrency.limit.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${concurrency.limit.max-streams:2}") int maxStreams,
+            @Value("${concurrency.limit.acquire-timeout:5s}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.streamPermits = new Semaphore(maxStreams, true);
+        this.acquireTimeout = acquireTimeout;
+        this.rejected = meterRegistry.counter("concurrency.limit.rejected");
+        Gauge.builder("concurrency.limit.in.use", permits, p -> maxConcurrent - p.availablePermits())
+                .description("API requests currently processed")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.waiting", permits, Semaphore::getQueueLength)
+                .description("API requests waiting for a permit")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.streams.in.use", streamPermits, p -> maxStreams - p.availablePermits())
+                .description("Streamed API responses currently produced")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI();
+        // Login and logout never touch the database
+        return !enabled || !path.startsWith("/api/") || path.startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        Semaphore limit = acceptsNdjson(request) ? streamPermits : permits;
+        if (!acquire(limit)) {
+            rejected.increment();
+            logger.warn("Concurrency limit reached, rejecting {} {}", request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+
+        Permit permit = new Permit(limit);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(toStreamPermit(permit)); // released on completion
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    // Explicit requests for the produces = application/x-ndjson handlers
+    private static boolean acceptsNdjson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    // An asynchronous response that took an API permit: moved to the stream limit if a permit is free right away
+    private Permit toStreamPermit(Permit permit) {
+        if (permit.limit != streamPermits && streamPermits.tryAcquire()) {
+            permit.release();
+            return new Permit(streamPermits);
+        }
+        return permit;
+    }
+
+    private boolean acquire(Semaphore limit) {
+        try {
+            return limit.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** A permit held by one request, released exactly once. */
+    private static class Permit implements AsyncListener {
+
+        private final Semaphore limit;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Semaphore limit) {
+            this.limit = limit;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                limit.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.apifactory.clientcontractapi.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Encodes the sort key of the last row of a page into an opaque continuation token (and back).
+ * The token is only Base64URL, clients must not rely on its content.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encodes the given key values (e.g. id, or updateDate + id) as a cursor.
+     */
+    public static String encode(Object... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into its key values.
+     *
+     * @param cursor        the token received from the client
+     * @param expectedParts number of key values the cursor must contain
+     * @return the raw key values, in the order they were encoded
+     * @throws ResponseStatusException 400 Bad Request if the token is malformed
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor, e);
+        }
+        String[] parts = raw.split("\\" + SEPARATOR, -1);
+        if (parts.length != expectedParts) {
+            throw invalid(cursor, null);
+        }
+        return parts;
+    }
+
+    /**
+     * Decodes a cursor and parses its key values.
+     *
+     * @param cursor        the token received from the client
+     * @param expectedParts number of key values the cursor must contain
+     * @param parser        builds the position from the raw key values (e.g. UUID::fromString on the first one)
+     * @return the parsed position
+     * @throws ResponseStatusException 400 Bad Request if the token is malformed or its values cannot be parsed
+     */
+    public static <T> T decode(String cursor, int expectedParts, Function<String[], T> parser) {
+        String[] parts = decode(cursor, expectedParts);
+        try {
+            return parser.apply(parts);
+        } catch (RuntimeException e) {
+            throw invalid(cursor, e);
+        }
+    }
+
+    // A client error: the token was not produced by this API, or was altered
+    private static ResponseStatusException invalid(String cursor, Throwable cause) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor, cause);
+    }
+}
@@ -0,0 +1,37 @@
+package com.apifactory.clientcontractapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes objects as newline-delimited JSON (one document per line) to a response stream.
+ * Used by the streaming endpoints so rows are sent as soon as they are read.
+ */
+public class NdjsonWriter {
+
+    private final ObjectWriter writer;
+    private final OutputStream out;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.writer = objectMapper.writer();
+        this.out = out;
+    }
+
+    /**
+     * Serializes one value followed by a line break.
+     *
+     * @throws UncheckedIOException if the client went away, so a database cursor loop can abort
+     */
+    public void write(Object value) {
+        try {
+            out.write(writer.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
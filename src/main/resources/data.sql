@@ -3,14 +3,14 @@
 -- ======================================================
 INSERT INTO client (id, name, email, phone, type)
 VALUES
-  (RANDOM_UUID(), 'Alice Dupont', 'alice.dupont@email.com', '+33612345678', 'PERSON'),
-  (RANDOM_UUID(), 'Bob Martin', 'bob.martin@email.com', '+33687654321', 'PERSON'),
-  (RANDOM_UUID(), 'Clara Nguyen', 'clara.nguyen@email.com', '+33699887766', 'PERSON'),
-  (RANDOM_UUID(), 'David Smith', 'david.smith@email.com', '+447911223344', 'PERSON'),
-  (RANDOM_UUID(), 'Emma Rossi', 'emma.rossi@email.com', '+390212345678', 'PERSON'),
-  (RANDOM_UUID(), 'TechCorp', 'contact@techcorp.com', '+33198765432', 'COMPANY'),
-  (RANDOM_UUID(), 'NeoBuild', 'contact@neobuild.com', '+33144556677', 'COMPANY'),
-  (RANDOM_UUID(), 'GreenLogix', 'info@greenlogix.com', '+33188997766', 'COMPANY');
+  (RANDOM_UUID(7), 'Alice Dupont', 'alice.dupont@email.com', '+33612345678', 'PERSON'),
+  (RANDOM_UUID(7), 'Bob Martin', 'bob.martin@email.com', '+33687654321', 'PERSON'),
+  (RANDOM_UUID(7), 'Clara Nguyen', 'clara.nguyen@email.com', '+33699887766', 'PERSON'),
+  (RANDOM_UUID(7), 'David Smith', 'david.smith@email.com', '+447911223344', 'PERSON'),
+  (RANDOM_UUID(7), 'Emma Rossi', 'emma.rossi@email.com', '+390212345678', 'PERSON'),
+  (RANDOM_UUID(7), 'TechCorp', 'contact@techcorp.com', '+33198765432', 'COMPANY'),
+  (RANDOM_UUID(7), 'NeoBuild', 'contact@neobuild.com', '+33144556677', 'COMPANY'),
+  (RANDOM_UUID(7), 'GreenLogix', 'info@greenlogix.com', '+33188997766', 'COMPANY');
 
 -- ======================================================
 -- PERSON DETAILS (Linked by CLIENT.ID via EMAIL)
@@ -70,23 +70,30 @@ WHERE c.email = 'info@greenlogix.com'
 -- SAMPLE CONTRACTS (Linked by CLIENT.ID)
 -- ======================================================
 -- Active contracts (no end date)
-INSERT INTO contract (client_id, start_date, end_date, cost_amount, update_date)
-SELECT c.id, DATEADD('DAY', -10, CURRENT_DATE), NULL, 1200.00, CURRENT_DATE
+INSERT INTO contract (id, client_id, start_date, end_date, cost_amount, status, update_date)
+SELECT NEXT VALUE FOR contract_seq, c.id, DATEADD('DAY', -10, CURRENT_DATE), NULL, 1200.00, 'ACTIVE', CURRENT_DATE
 FROM client c WHERE c.email = 'alice.dupont@email.com'
   AND NOT EXISTS (SELECT 1 FROM contract k WHERE k.client_id = c.id);
 
-INSERT INTO contract (client_id, start_date, end_date, cost_amount, update_date)
-SELECT c.id, DATEADD('DAY', -30, CURRENT_DATE), NULL, 850.00, CURRENT_DATE
+INSERT INTO contract (id, client_id, start_date, end_date, cost_amount, status, update_date)
+SELECT NEXT VALUE FOR contract_seq, c.id, DATEADD('DAY', -30, CURRENT_DATE), NULL, 850.00, 'ACTIVE', CURRENT_DATE
 FROM client c WHERE c.email = 'contact@techcorp.com'
   AND NOT EXISTS (SELECT 1 FROM contract k WHERE k.client_id = c.id);
 
 -- Expired contract
-INSERT INTO contract (client_id, start_date, end_date, cost_amount, update_date)
-SELECT c.id, DATEADD('MONTH', -6, CURRENT_DATE), DATEADD('MONTH', -1, CURRENT_DATE), 300.00, CURRENT_DATE
+INSERT INTO contract (id, client_id, start_date, end_date, cost_amount, status, update_date)
+SELECT NEXT VALUE FOR contract_seq, c.id, DATEADD('MONTH', -6, CURRENT_DATE), DATEADD('MONTH', -1, CURRENT_DATE), 300.00, 'EXPIRED', CURRENT_DATE
 FROM client c WHERE c.email = 'bob.martin@email.com'
   AND NOT EXISTS (SELECT 1 FROM contract k WHERE k.client_id = c.id);
 
-INSERT INTO contract (client_id, start_date, end_date, cost_amount, update_date)
-SELECT c.id, DATEADD('MONTH', -12, CURRENT_DATE), DATEADD('MONTH', -2, CURRENT_DATE), 500.00, CURRENT_DATE
+INSERT INTO contract (id, client_id, start_date, end_date, cost_amount, status, update_date)
+SELECT NEXT VALUE FOR contract_seq, c.id, DATEADD('MONTH', -12, CURRENT_DATE), DATEADD('MONTH', -2, CURRENT_DATE), 500.00, 'EXPIRED', CURRENT_DATE
 FROM client c WHERE c.email = 'contact@neobuild.com'
   AND NOT EXISTS (SELECT 1 FROM contract k WHERE k.client_id = c.id);
+
+-- Cost history of the sample contracts: their amount since their start date
+INSERT INTO contract_cost_history (id, contract_id, client_id, cost_amount, valid_from, valid_to)
+SELECT NEXT VALUE FOR contract_cost_history_seq, k.id, k.client_id, k.cost_amount, k.start_date, NULL
+FROM contract k JOIN client c ON c.id = k.client_id
+WHERE c.email IN ('alice.dupont@email.com', 'contact@techcorp.com', 'bob.martin@email.com', 'contact@neobuild.com')
+  AND NOT EXISTS (SELECT 1 FROM contract_cost_history h WHERE h.contract_id = k.id);
@@ -0,0 +1,58 @@
+-- Baseline schema, as generated by Hibernate from the entities before migrations were introduced.
+-- Databases created by the former ddl-auto=update are baselined at this version (spring.flyway.baseline-on-migrate).
+
+-- Contract ids are reserved by blocks of 50 (Contract#id allocationSize): known before insert, allows JDBC batching
+CREATE SEQUENCE contract_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE client (
+    id UUID NOT NULL,
+    email VARCHAR(255),
+    name VARCHAR(255) NOT NULL,
+    phone VARCHAR(255) NOT NULL,
+    type ENUM('COMPANY', 'PERSON'),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_client_email UNIQUE (email)
+);
+
+CREATE TABLE person (
+    id UUID NOT NULL,
+    birth_date DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_person_client FOREIGN KEY (id) REFERENCES client (id)
+);
+
+CREATE TABLE company (
+    id UUID NOT NULL,
+    company_id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_company_company_id UNIQUE (company_id),
+    CONSTRAINT fk_company_client FOREIGN KEY (id) REFERENCES client (id)
+);
+
+CREATE TABLE contract (
+    id BIGINT NOT NULL,
+    client_id UUID,
+    start_date TIMESTAMP(6),
+    end_date TIMESTAMP(6),
+    cost_amount NUMERIC(38, 2),
+    update_date TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_contract_client FOREIGN KEY (client_id) REFERENCES client (id)
+);
+
+-- Active contracts of a client, optionally updated since a date
+CREATE INDEX idx_contract_client_active ON contract (client_id, end_date, update_date);
+-- Covering index for the sums of active amounts
+CREATE INDEX idx_contract_client_cost ON contract (client_id, end_date, cost_amount);
+-- Global change feed, keyset on (update_date, id)
+CREATE INDEX idx_contract_update_date ON contract (update_date, id);
+
+-- Running totals of the active contracts per client, see ContractTotalService
+CREATE TABLE client_contract_total (
+    client_id UUID NOT NULL,
+    active_amount NUMERIC(38, 2),
+    active_count BIGINT NOT NULL,
+    next_expiry TIMESTAMP(6),
+    update_date TIMESTAMP(6),
+    PRIMARY KEY (client_id)
+);
@@ -0,0 +1,16 @@
+-- Persisted contract status (ContractStatus): active contracts are found by an equality instead of
+-- "end_date IS NULL OR end_date > CURRENT_DATE", which no index can seek.
+ALTER TABLE contract ADD COLUMN status ENUM('ACTIVE', 'EXPIRED', 'CLOSED') DEFAULT 'ACTIVE' NOT NULL;
+
+-- Contracts without client were closed by the deletion of their client
+UPDATE contract SET status = 'CLOSED' WHERE client_id IS NULL;
+UPDATE contract SET status = 'EXPIRED' WHERE client_id IS NOT NULL AND end_date <= CURRENT_DATE;
+
+-- Active contracts of a client, optionally updated since a date
+DROP INDEX idx_contract_client_active;
+CREATE INDEX idx_contract_client_active ON contract (client_id, status, update_date);
+-- Covering index for the sums of active amounts and the next expiry
+DROP INDEX idx_contract_client_cost;
+CREATE INDEX idx_contract_client_cost ON contract (client_id, status, cost_amount, end_date);
+-- Nightly sweep of the active contracts past their end date
+CREATE INDEX idx_contract_status_end_date ON contract (status, end_date);
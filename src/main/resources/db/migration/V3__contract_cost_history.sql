@@ -0,0 +1,25 @@
+-- Append-only history of the contract cost amounts (ContractCostHistory): one row per amount a contract had,
+-- valid from valid_from (inclusive) to valid_to (exclusive, NULL while current), for the totals at a past instant.
+CREATE SEQUENCE contract_cost_history_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE contract_cost_history (
+    id BIGINT NOT NULL,
+    contract_id BIGINT NOT NULL,
+    client_id UUID,
+    cost_amount NUMERIC(38, 2) NOT NULL,
+    valid_from TIMESTAMP(6) NOT NULL,
+    valid_to TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cost_history_contract FOREIGN KEY (contract_id) REFERENCES contract (id)
+);
+
+-- Amounts of a client valid at an instant: range on valid_from, the other columns read from the index
+CREATE INDEX idx_cost_history_client_from ON contract_cost_history (client_id, valid_from, valid_to, cost_amount, contract_id);
+-- Current amount of a contract, closed when the amount changes
+CREATE INDEX idx_cost_history_contract ON contract_cost_history (contract_id, valid_to);
+
+-- Earlier changes were not recorded: existing contracts start with their current amount
+INSERT INTO contract_cost_history (id, contract_id, client_id, cost_amount, valid_from, valid_to)
+SELECT NEXT VALUE FOR contract_cost_history_seq, id, client_id, cost_amount, COALESCE(start_date, update_date), NULL
+FROM contract
+WHERE client_id IS NOT NULL AND cost_amount IS NOT NULL;
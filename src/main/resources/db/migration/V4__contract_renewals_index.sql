@@ -0,0 +1,4 @@
+-- Active contracts by end date: nightly expiry sweep, and renewal pipeline keyset-paginated on (end_date, id).
+-- With id in the index, a page is read in index order and stops after its last row, instead of sorting the window.
+DROP INDEX idx_contract_status_end_date;
+CREATE INDEX idx_contract_status_end_date ON contract (status, end_date, id);
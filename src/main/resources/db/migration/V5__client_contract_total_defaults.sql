@@ -0,0 +1,4 @@
+-- Totals are created empty by ContractTotalService (MERGE ... KEY on client_id) and rebuilt under their row lock:
+-- the other columns take these defaults until then.
+ALTER TABLE client_contract_total ALTER COLUMN active_amount SET DEFAULT 0;
+ALTER TABLE client_contract_total ALTER COLUMN active_count SET DEFAULT 0;
@@ -0,0 +1,8 @@
+-- V1 declared fk_contract_client inside CREATE TABLE contract, before its indexes: H2 gave the constraint an index
+-- of its own on client_id, created first. H2 keeps the first of the indexes with the same estimated cost, so the
+-- active-contract lookups seeked that copy instead of idx_contract_client_active (client_id, status, update_date).
+-- Declared again, the constraint gets its index (H2 requires one on exactly client_id) after the composite ones.
+-- Databases baselined from ddl-auto=update carry the same foreign key under the name Hibernate generated for it.
+ALTER TABLE contract DROP CONSTRAINT IF EXISTS fk_contract_client;
+ALTER TABLE contract DROP CONSTRAINT IF EXISTS fklhq3p3xl25vvnfvyfc51ica0j;
+ALTER TABLE contract ADD CONSTRAINT fk_contract_client FOREIGN KEY (client_id) REFERENCES client (id);
@@ -0,0 +1,3 @@
+-- Nightly reconciliation: totals whose next_expiry has passed (ClientContractTotalRepository.findStaleClientIds).
+-- Without it, every run scans the whole table to find the few clients with a contract expiring that day.
+CREATE INDEX idx_client_contract_total_next_expiry ON client_contract_total (next_expiry);
@@ -0,0 +1,72 @@
+package com.apifactory.clientcontractapi.controller;
+
+import com.apifactory.clientcontractapi.web.CursorCodec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web tests of the request validation of {@link ContractController}: invalid selectors and cursors are client errors
+ * (400), like the cursors of the client listing.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class ContractControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void totalsWithoutSelectorShouldBeBadRequest() throws Exception {
+        mockMvc.perform(post("/api/contracts/totals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("{\"clientIds\":[]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/contracts/totals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void totalsWithMalformedSelectorShouldBeBadRequest() throws Exception {
+        mockMvc.perform(post("/api/contracts/totals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientIds\":[\"not-a-uuid\"]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/contracts/totals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"PARTNER\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void malformedCursorShouldBeBadRequest() throws Exception {
+        String notBase64 = "%%%";
+        String wrongParts = CursorCodec.encode("2026-01-01T00:00");
+        String wrongValues = CursorCodec.encode("yesterday", 42);
+
+        for (String cursor : new String[] { notBase64, wrongParts, wrongValues }) {
+            mockMvc.perform(get("/api/contracts/changes").param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/contracts/renewals").param("cursor", cursor).accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/api/clients").param("cursor", CursorCodec.encode("not-a-uuid")))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,200 @@
+package com.apifactory.clientcontractapi.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression suite: runs each repository query, captures the SQL generated by Hibernate
+ * and asks H2 to EXPLAIN it. Fails as soon as a lookup stops seeking the index declared for it
+ * (e.g. a dropped index, and H2 falling back to a table scan or to another index on the same column).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.apifactory.clientcontractapi.repository.ContractQueryPlanTest$CapturingInspector")
+@ActiveProfiles("test")
+class ContractQueryPlanTest {
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ClientContractTotalRepository contractTotalRepository;
+
+    @Autowired
+    private ContractCostHistoryRepository contractCostHistoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // H2 names the primary key indexes PRIMARY_KEY_<suffix>, and the index of a foreign key <constraint>_INDEX_<suffix>
+    private static final String PRIMARY_KEY = "PRIMARY_KEY";
+    private static final String CLIENT_FOREIGN_KEY = "FK_CONTRACT_CLIENT_INDEX";
+
+    private final UUID clientId = UUID.randomUUID();
+
+    @Test
+    void findActiveContractsShouldUseContractIndex() {
+        assertIndexSeek(plansOf(() -> contractRepository.findActiveContractsByClientId(clientId, null)),
+                "IDX_CONTRACT_CLIENT_ACTIVE", "CLIENT_ID =");
+        assertIndexSeek(plansOf(() -> contractRepository.findActiveContractsByClientId(clientId, LocalDateTime.now())),
+                "IDX_CONTRACT_CLIENT_ACTIVE", "CLIENT_ID =");
+    }
+
+    @Test
+    void activeContractProjectionShouldSeekBothTables() {
+        List<String> plans = plansOf(() -> contractRepository.findActiveContractResponsesByClientId(clientId, null));
+
+        assertThat(plans).hasSize(1); // contracts and client name in one statement
+        assertIndexSeek(plans, "IDX_CONTRACT_CLIENT_ACTIVE", "CLIENT_ID =");
+        assertIndexSeek(plans, PRIMARY_KEY, "ID =");
+    }
+
+    @Test
+    void changeFeedShouldSeekOnUpdateDate() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> plans = plansOf(() -> contractRepository.findChangesAfter(now.minusDays(1), 42L, now, Limit.of(100)));
+
+        assertIndexSeek(plans, "IDX_CONTRACT_UPDATE_DATE", "UPDATE_DATE ");
+        assertThat(plans.get(0)).contains("/* index sorted */"); // pages are read in index order, no sort
+    }
+
+    @Test
+    void activeSumsShouldUseContractIndex() {
+        assertIndexSeek(plansOf(() -> contractRepository.sumActiveContractsByClientId(clientId)),
+                "IDX_CONTRACT_CLIENT_COST", "CLIENT_ID =");
+        assertIndexSeek(plansOf(() -> contractRepository.summarizeActiveContractsByClientId(clientId)),
+                "IDX_CONTRACT_CLIENT_COST", "CLIENT_ID =");
+    }
+
+    @Test
+    void multiClientTotalsShouldSeekBothTables() {
+        List<String> plans = plansOf(() -> contractRepository.sumActiveContractsByClientIds(List.of(clientId, UUID.randomUUID()), null));
+
+        assertThat(plans).hasSize(1); // all the clients in one grouped statement
+        assertIndexSeek(plans, PRIMARY_KEY, "ID IN(");
+        assertIndexSeek(plans, "IDX_CONTRACT_CLIENT_COST", "STATUS = CAST('ACTIVE'"); // covering index, seeked per client
+        assertThat(plans.get(0)).contains("/* group sorted */");
+    }
+
+    @Test
+    void totalAtInstantShouldSeekCostHistoryRange() {
+        LocalDateTime at = LocalDateTime.now().minusDays(30);
+        List<String> plans = plansOf(() -> contractCostHistoryRepository.sumActiveAmountAt(clientId, at, at.toLocalDate().atStartOfDay()));
+
+        assertThat(plans).hasSize(1);
+        assertIndexSeek(plans, "IDX_COST_HISTORY_CLIENT_FROM", "CLIENT_ID =");
+        assertThat(plans.get(0)).contains("VALID_FROM <="); // range on the history index, not the whole client history
+        assertIndexSeek(plans, PRIMARY_KEY, "ID =");
+    }
+
+    @Test
+    void renewalsShouldRangeScanOnEndDate() {
+        LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
+        List<String> plans = plansOf(() -> contractRepository.findRenewalsAfter(today, 0L, today.plusDays(30), null, Limit.of(100)));
+
+        assertThat(plans).hasSize(1); // contracts and client name in one statement
+        assertIndexSeek(plans, "IDX_CONTRACT_STATUS_END_DATE", "END_DATE <"); // range of the (status, end_date, id) index
+        assertThat(plans.get(0)).contains("AND END_DATE >=")
+                .contains("/* index sorted */"); // a page stops after its last row, the window is not sorted
+    }
+
+    @Test
+    void expirySweepShouldSeekOnStatus() {
+        List<String> plans = plansOf(() -> contractRepository.findIdsToExpire(LocalDateTime.now(), Limit.of(1000)));
+
+        assertIndexSeek(plans, "IDX_CONTRACT_STATUS_END_DATE", "STATUS =");
+        assertThat(plans.get(0)).containsPattern("AND END_DATE <= \\?1\\s+\\*/") // range of the index, not a filter
+                .contains("FETCH FIRST"); // one batch, read from the index until it is full
+    }
+
+    @Test
+    void totalLookupShouldUsePrimaryKey() {
+        assertIndexSeek(plansOf(() -> contractTotalRepository.findForUpdate(clientId)), PRIMARY_KEY, "CLIENT_ID =");
+    }
+
+    @Test
+    void clientContractLookupsShouldSeekOnClient() {
+        // Index of the foreign key, on client_id only: the smallest one holding the contract ids of a client
+        assertIndexSeek(plansOf(() -> contractRepository.countByClientId(clientId)),
+                CLIENT_FOREIGN_KEY, "CLIENT_ID =");
+        List<String> plans = plansOf(() -> contractRepository.findIdsByClientId(clientId, Limit.of(5000)));
+
+        assertIndexSeek(plans, CLIENT_FOREIGN_KEY, "CLIENT_ID =");
+        assertThat(plans.get(0)).contains("FETCH FIRST"); // one deletion chunk
+    }
+
+    @Test
+    void existingClientIdsShouldSeekOnPrimaryKey() {
+        assertIndexSeek(plansOf(() -> clientRepository.findExistingIds(List.of(clientId, UUID.randomUUID()))),
+                PRIMARY_KEY, "ID IN(");
+    }
+
+    @Test
+    void staleTotalsShouldRangeScanOnNextExpiry() {
+        assertIndexSeek(plansOf(() -> contractTotalRepository.findStaleClientIds(LocalDateTime.now())),
+                "IDX_CLIENT_CONTRACT_TOTAL_NEXT_EXPIRY", "NEXT_EXPIRY <=");
+    }
+
+    @Test
+    void clientKeysetPageShouldSeekOnPrimaryKey() {
+        assertIndexSeek(plansOf(() -> clientRepository.findByIdGreaterThanOrderByIdAsc(clientId, Limit.of(10))),
+                PRIMARY_KEY, "ID >");
+    }
+
+    /** Runs the repository call and returns the H2 plan of every SELECT it issued. */
+    private List<String> plansOf(Runnable repositoryCall) {
+        CapturingInspector.STATEMENTS.clear();
+        repositoryCall.run();
+        List<String> selects = CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .toList();
+        assertThat(selects).as("captured SELECT statements").isNotEmpty();
+        return selects.stream()
+                .map(sql -> jdbcTemplate.query(con -> con.prepareStatement("EXPLAIN " + sql),
+                        rs -> rs.next() ? rs.getString(1) : ""))
+                .toList();
+    }
+
+    /**
+     * Asserts that each plan reads through the given index using the given condition, e.g.
+     * ("IDX_CONTRACT_CLIENT_ACTIVE", "CLIENT_ID =") matches the H2 plan comment
+     * {@code PUBLIC.IDX_CONTRACT_CLIENT_ACTIVE: CLIENT_ID = ?1}.
+     */
+    private static void assertIndexSeek(List<String> plans, String index, String condition) {
+        boolean generated = PRIMARY_KEY.equals(index) || CLIENT_FOREIGN_KEY.equals(index);
+        String indexName = generated ? index + "_\\w+" : Pattern.quote(index);
+        Pattern seek = Pattern.compile("/\\* PUBLIC\\." + indexName + ": " + Pattern.quote(condition));
+        for (String plan : plans) {
+            assertThat(plan).as(plan)
+                    .doesNotContain(".tableScan")
+                    .containsPattern(seek);
+        }
+    }
+
+    /** Records every SQL statement prepared by Hibernate. */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
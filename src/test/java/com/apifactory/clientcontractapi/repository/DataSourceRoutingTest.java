@@ -0,0 +1,121 @@
+package com.apifactory.clientcontractapi.repository;
+
+import com.apifactory.clientcontractapi.model.Client;
+import com.apifactory.clientcontractapi.model.ClientType;
+import com.apifactory.clientcontractapi.model.Person;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test of the read/write data source routing (DataSourceConfig).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DataSourceRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("writeDataSource")
+    private HikariDataSource writeDataSource;
+
+    @Autowired
+    @Qualifier("readDataSource")
+    private HikariDataSource readDataSource;
+
+    @Test
+    void readOnlyTransactionShouldUseReadPoolWithoutDirtyChecking() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            clientRepository.count();
+            Session session = entityManager.unwrap(Session.class);
+
+            assertThat(readDataSource.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(writeDataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+            assertThat(session.isDefaultReadOnly()).isTrue(); // no snapshot kept for dirty checking
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+        });
+    }
+
+    @Test
+    void readWriteTransactionShouldUseWritePool() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            clientRepository.count();
+
+            assertThat(writeDataSource.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(readDataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+    }
+
+    @Test
+    @WithMockUser
+    void writeAfterReadOnlyLookupInSameRequestShouldUseWritePool() throws Exception {
+        Client client = clientRepository.saveAndFlush(person());
+        entityManagerFactory.getCache().evict(Client.class); // the client lookup reads the database
+        double readAcquired = acquiredConnections("read");
+        double writeAcquired = acquiredConnections("write");
+
+        // POST /api/contracts looks the client up (read-only), then inserts the contract
+        mockMvc.perform(post("/api/contracts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientId\":\"" + client.getId() + "\",\"costAmount\":100}"))
+                .andExpect(status().isOk());
+
+        assertThat(acquiredConnections("read")).isGreaterThan(readAcquired);
+        assertThat(acquiredConnections("write")).isGreaterThan(writeAcquired);
+    }
+
+    private double acquiredConnections(String pool) {
+        return meterRegistry.get("hikaricp.connections.acquire").tag("pool", pool).timer().count();
+    }
+
+    private static Person person() {
+        Person person = new Person();
+        person.setName("Routed Client");
+        person.setEmail("routed@gmail.com");
+        person.setPhone("+84048120");
+        person.setType(ClientType.PERSON);
+        return person;
+    }
+}
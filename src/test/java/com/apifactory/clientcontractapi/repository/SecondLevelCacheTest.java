@@ -0,0 +1,112 @@
+package com.apifactory.clientcontractapi.repository;
+
+import com.apifactory.clientcontractapi.model.ClientType;
+import com.apifactory.clientcontractapi.model.Company;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.RequiredSearch;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test of the Hibernate second-level and query caches (Client hierarchy).
+ * Not transactional: entities only reach the second-level cache once their transaction committed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private Company company;
+
+    @BeforeEach
+    void setup() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        company = new Company();
+        company.setName("Cache Corp");
+        company.setEmail("cache@corp.com");
+        company.setPhone("+33123456789");
+        company.setCompanyId("cch-001");
+        company = transaction.execute(status -> companyRepository.save(company));
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        transaction.executeWithoutResult(status -> companyRepository.deleteById(company.getId()));
+    }
+
+    @Test
+    void shouldLoadClientFromSecondLevelCache() {
+        transaction.executeWithoutResult(status -> clientRepository.findById(company.getId()).orElseThrow());
+        transaction.executeWithoutResult(status -> clientRepository.findById(company.getId()).orElseThrow());
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero(); // cached when saved, no SELECT
+    }
+
+    @Test
+    void shouldPublishClientRegionStatistics() {
+        double hits = clientCacheMeter("cache.gets").tag("result", "hit").functionCounter().count();
+
+        transaction.executeWithoutResult(status -> clientRepository.findById(company.getId()).orElseThrow());
+
+        assertThat(clientCacheMeter("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(hits + 1);
+        assertThat(clientCacheMeter("cache.evictions").functionCounter().count()).isZero(); // far below maximum.size
+    }
+
+    @Test
+    void shouldCacheQueryResultsUntilTableChanges() {
+        transaction.executeWithoutResult(status -> clientRepository.findByType(ClientType.COMPANY));
+        transaction.executeWithoutResult(status -> clientRepository.findByType(ClientType.COMPANY));
+        Boolean exists = transaction.execute(status -> companyRepository.existsByCompanyId("cch-001"));
+        Boolean existsAgain = transaction.execute(status -> companyRepository.existsByCompanyId("cch-001"));
+
+        assertThat(exists).isTrue();
+        assertThat(existsAgain).isTrue();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+
+        transaction.executeWithoutResult(status -> companyRepository.findById(company.getId()).orElseThrow()
+                .setName("Cache Corp renamed"));
+        transaction.executeWithoutResult(status -> clientRepository.findByType(ClientType.COMPANY));
+
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(3); // stale result discarded
+    }
+
+    private RequiredSearch clientCacheMeter(String name) {
+        return meterRegistry.get(name).tag("cache", "client");
+    }
+}
@@ -0,0 +1,77 @@
+package com.apifactory.clientcontractapi.security;
+
+import io.jsonwebtoken.Claims;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link JwtService}.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-of-at-least-32-bytes!";
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000, 100);
+
+    @Test
+    void shouldVerifyGeneratedToken() {
+        String token = jwtService.generateToken("superAdmin", List.of("ROLE_ADMIN"));
+
+        Optional<Claims> claims = jwtService.verify(token);
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().getSubject()).isEqualTo("superAdmin");
+        assertThat(jwtService.getUsername(token)).isEqualTo("superAdmin");
+    }
+
+    @Test
+    void shouldEmbedAuthoritiesAndUniqueTokenId() {
+        String token = jwtService.generateToken("superAdmin", List.of("ROLE_ADMIN", "ROLE_USER"));
+        String other = jwtService.generateToken("superAdmin", List.of("ROLE_ADMIN", "ROLE_USER"));
+
+        Claims claims = jwtService.verify(token).orElseThrow();
+
+        assertThat(jwtService.getAuthorities(claims)).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(claims.getId()).isNotBlank().isNotEqualTo(jwtService.verify(other).orElseThrow().getId());
+    }
+
+    @Test
+    void shouldServeVerifiedTokenFromCache() {
+        String token = jwtService.generateToken("superAdmin", List.of("ROLE_ADMIN"));
+
+        Claims first = jwtService.verify(token).orElseThrow();
+        Claims second = jwtService.verify(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void shouldRejectTamperedToken() {
+        String token = jwtService.generateToken("superAdmin", List.of("ROLE_ADMIN"));
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThat(jwtService.verify(tampered)).isEmpty();
+        assertThat(jwtService.isValid("not-a-jwt")).isFalse();
+        assertThatThrownBy(() -> jwtService.getUsername(tampered)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKey() {
+        JwtService otherService = new JwtService("another-secret-key-of-at-least-32-bytes", 60_000, 100);
+
+        assertThat(jwtService.isValid(otherService.generateToken("superAdmin", List.of("ROLE_ADMIN")))).isFalse();
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        JwtService expiringService = new JwtService(SECRET, -1_000, 100);
+
+        assertThat(expiringService.isValid(expiringService.generateToken("superAdmin", List.of("ROLE_ADMIN")))).isFalse();
+    }
+}
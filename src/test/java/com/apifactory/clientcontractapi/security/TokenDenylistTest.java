@@ -0,0 +1,33 @@
+package com.apifactory.clientcontractapi.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link TokenDenylist}.
+ */
+class TokenDenylistTest {
+
+    private final TokenDenylist denylist = new TokenDenylist(60_000);
+
+    @Test
+    void shouldRejectRevokedTokenUntilItExpires() {
+        denylist.revoke("active", new Date(System.currentTimeMillis() + 60_000));
+        denylist.revoke("expired", new Date(System.currentTimeMillis() - 1_000));
+
+        assertThat(denylist.isRevoked("active")).isTrue();
+        assertThat(denylist.isRevoked("expired")).isFalse(); // dropped: the token is rejected anyway
+        assertThat(denylist.isRevoked("unknown")).isFalse();
+        assertThat(denylist.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void tokenWithoutExpiryShouldBeRevokedForTheTokenLifetime() {
+        denylist.revoke("no-exp", null);
+
+        assertThat(denylist.isRevoked("no-exp")).isTrue();
+    }
+}
@@ -0,0 +1,80 @@
+package com.apifactory.clientcontractapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link BackupService}, on a standalone in-memory H2 database.
+ */
+class BackupServiceTest {
+
+    @TempDir
+    Path folder;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbc;
+    private BackupService backupService;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:backup-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE SEQUENCE contract_seq START WITH 1 INCREMENT BY 50");
+        jdbc.execute("CREATE TABLE contract (id BIGINT PRIMARY KEY, cost_amount DECIMAL(19, 2))");
+        jdbc.update("INSERT INTO contract VALUES (NEXT VALUE FOR contract_seq, 100), (NEXT VALUE FOR contract_seq, 200)");
+
+        backupService = new BackupService(dataSource, meterRegistry,
+                true, folder.toString(), 2, Duration.ofDays(7));
+    }
+
+    @Test
+    void shouldOnlyKeepBackupsOfChangedData() {
+        BackupService.BackupRun first = backupService.backup();
+        BackupService.BackupRun unchanged = backupService.backup();
+
+        assertThat(first.created()).isTrue();
+        assertThat(unchanged.created()).isFalse();
+        assertThat(unchanged.file()).isEqualTo(first.file());
+
+        jdbc.update("UPDATE contract SET cost_amount = 150 WHERE cost_amount = 100");
+        BackupService.BackupRun changed = backupService.backup();
+
+        assertThat(changed.created()).isTrue();
+        assertThat(backupService.listBackups()).containsExactly(changed.file(), first.file());
+        assertThat(meterRegistry.get("backup.duration").tag("result", "unchanged").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("backup.script.bytes").counter().count()).isPositive();
+    }
+
+    @Test
+    void shouldRestoreDataAndSequences() {
+        Path backup = backupService.backup().file();
+        jdbc.update("DELETE FROM contract");
+        jdbc.execute("DROP SEQUENCE contract_seq");
+
+        backupService.restore(backup);
+
+        assertThat(jdbc.queryForObject("SELECT SUM(cost_amount) FROM contract", Integer.class)).isEqualTo(300);
+        assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR contract_seq", Long.class)).isEqualTo(101);
+    }
+
+    @Test
+    void shouldPruneBackupsBeyondRetentionCount() {
+        for (int amount = 1; amount <= 3; amount++) {
+            jdbc.update("UPDATE contract SET cost_amount = ?", amount);
+            backupService.backup();
+        }
+
+        assertThat(backupService.listBackups()).hasSize(2);
+    }
+}
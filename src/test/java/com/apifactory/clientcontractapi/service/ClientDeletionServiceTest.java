@@ -0,0 +1,121 @@
+package com.apifactory.clientcontractapi.service;
+
+import com.apifactory.clientcontractapi.model.ClientType;
+import com.apifactory.clientcontractapi.model.Contract;
+import com.apifactory.clientcontractapi.model.Person;
+import com.apifactory.clientcontractapi.repository.ClientRepository;
+import com.apifactory.clientcontractapi.repository.ContractRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+
+/**
+ * Integration test for {@link ClientDeletionService}, with a low threshold to exercise background deletions.
+ * Not transactional: the background deletion runs on its own thread and transactions.
+ */
+@SpringBootTest(properties = { "clients.deletion.async-threshold=3", "clients.deletion.chunk-size=2" })
+@ActiveProfiles("test")
+class ClientDeletionServiceTest {
+
+    @Autowired
+    private ClientDeletionService clientDeletionService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ContractTotalService contractTotalService;
+
+    @MockitoSpyBean
+    private ClientService clientService;
+
+    @Test
+    void smallClientShouldBeDeletedRightAway() {
+        UUID clientId = createClientWithContracts("small@gmail.com", 3);
+
+        assertThat(clientDeletionService.deleteClient(clientId)).isEmpty();
+        assertThat(clientRepository.existsById(clientId)).isFalse();
+    }
+
+    @Test
+    void largeClientShouldBeDeletedInBackgroundByChunks() throws InterruptedException {
+        UUID clientId = createClientWithContracts("large@gmail.com", 5);
+
+        Optional<ClientDeletionJob> submitted = clientDeletionService.deleteClient(clientId);
+        assertThat(submitted).isPresent();
+        ClientDeletionJob job = submitted.get();
+        assertThat(job.getContractCount()).isEqualTo(5);
+
+        for (int i = 0; i < 100 && !job.isFinished(); i++) {
+            Thread.sleep(50);
+        }
+
+        assertThat(clientDeletionService.getJob(job.getId())).containsSame(job);
+        assertThat(job.getStatus()).isEqualTo(ClientDeletionJob.Status.COMPLETED);
+        assertThat(job.getContractsClosed()).isEqualTo(5);
+        assertThat(clientRepository.existsById(clientId)).isFalse();
+        assertThat(contractRepository.countByClientId(clientId)).isZero();
+    }
+
+    @Test
+    void failedBackgroundDeletionShouldLeaveTheTotalOfTheRemainingContracts() throws InterruptedException {
+        UUID clientId = createClientWithContracts("failed@gmail.com", 0);
+        for (int i = 0; i < 5; i++) {
+            contractService.createContract(clientId, null, null, new BigDecimal("100")); // maintains the total
+        }
+        doCallRealMethod().doThrow(new IllegalStateException("second chunk failed"))
+                .when(clientService).closeContractsChunk(eq(clientId), anyInt());
+
+        ClientDeletionJob job = clientDeletionService.deleteClient(clientId).orElseThrow();
+        for (int i = 0; i < 100 && !job.isFinished(); i++) {
+            Thread.sleep(50);
+        }
+
+        assertThat(job.getStatus()).isEqualTo(ClientDeletionJob.Status.FAILED);
+        assertThat(job.getContractsClosed()).isEqualTo(2);
+        assertThat(clientRepository.existsById(clientId)).isTrue();
+        assertThat(contractTotalService.getActiveAmount(clientId)).isEqualByComparingTo("300");
+        assertThat(contractRepository.sumActiveContractsByClientId(clientId)).isEqualByComparingTo("300");
+
+        clientService.deleteClient(clientId);
+    }
+
+    private UUID createClientWithContracts(String email, int contracts) {
+        Person person = new Person();
+        person.setName("Deleted Client");
+        person.setEmail(email);
+        person.setPhone("+84048120");
+        person.setType(ClientType.PERSON);
+        clientRepository.saveAndFlush(person);
+
+        List<Contract> created = new ArrayList<>();
+        for (int i = 0; i < contracts; i++) {
+            Contract contract = new Contract();
+            contract.setClient(person);
+            contract.setCostAmount(new BigDecimal("100"));
+            created.add(contract);
+        }
+        contractRepository.saveAllAndFlush(created);
+        return person.getId();
+    }
+}
@@ -1,5 +1,6 @@
 package com.apifactory.clientcontractapi.service;
 
+import com.apifactory.clientcontractapi.model.Client;
 import com.apifactory.clientcontractapi.model.ClientType;
 import com.apifactory.clientcontractapi.model.Contract;
 import com.apifactory.clientcontractapi.model.Person;
@@ -12,11 +13,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,6 +43,9 @@ class ClientServiceTest {
     @Autowired
     private ContractRepository contractRepository;
 
+    @Autowired
+    private ContractService contractService;
+
     private Person testPerson;
 
     @BeforeEach
@@ -60,6 +66,19 @@ class ClientServiceTest {
         assertThat(saved.getName()).isEqualTo("Kamal Aarab");
     }
 
+    @Test
+    void shouldGenerateIncreasingTimeOrderedIds() {
+        Person other = new Person();
+        other.setName("Other Person");
+        other.setEmail("other@gmail.com");
+        other.setPhone("+84048121");
+        other.setType(ClientType.PERSON);
+        clientRepository.saveAndFlush(other);
+
+        assertThat(testPerson.getId().version()).isEqualTo(7);
+        assertThat(other.getId()).isGreaterThan(testPerson.getId());
+    }
+
     @Test
     void shouldUpdateClientInfo() {
         testPerson.setPhone("+4129414124");
@@ -95,4 +114,93 @@ class ClientServiceTest {
                 .as("All active contracts should be closed after client deletion")
                 .allMatch(c -> c.getEndDate() != null);
     }
+
+    @Test
+    void deletingClientShouldUnlinkEveryContractAndKeepPastEndDates() {
+        LocalDateTime pastEnd = LocalDateTime.now().minusDays(1).withNano(0);
+        Contract active = new Contract();
+        active.setClient(testPerson);
+        active.setCostAmount(new BigDecimal("100"));
+        Contract expired = new Contract();
+        expired.setClient(testPerson);
+        expired.setStartDate(LocalDateTime.now().minusDays(10));
+        expired.setEndDate(pastEnd);
+        expired.setCostAmount(new BigDecimal("50"));
+        contractRepository.saveAllAndFlush(List.of(active, expired));
+
+        assertThat(clientService.deleteClient(testPerson.getId())).isEqualTo(2);
+
+        Contract closed = contractRepository.findById(active.getId()).orElseThrow();
+        Contract unchanged = contractRepository.findById(expired.getId()).orElseThrow();
+        assertThat(closed.getClient()).isNull();
+        assertThat(closed.getEndDate()).isNotNull().isEqualTo(closed.getUpdateDate());
+        assertThat(unchanged.getClient()).isNull();
+        assertThat(unchanged.getEndDate()).isEqualTo(pastEnd);
+        assertThat(clientRepository.existsById(testPerson.getId())).isFalse();
+    }
+
+    @Test
+    void deletingClientShouldEndTheCostHistoryOfTheirContracts() throws InterruptedException {
+        contractService.createContract(testPerson.getId(), null, null, new BigDecimal("100.00"));
+        Thread.sleep(5);
+        LocalDateTime beforeDeletion = LocalDateTime.now();
+        Thread.sleep(5);
+
+        clientService.deleteClient(testPerson.getId());
+
+        assertThat(contractService.getTotalActiveContractAmountAt(testPerson.getId(), beforeDeletion))
+                .isEqualByComparingTo("100.00");
+        assertThat(contractService.getTotalActiveContractAmountAt(testPerson.getId(), LocalDateTime.now()))
+                .isEqualByComparingTo("0");
+    }
+
+    @Test
+    void pagingShouldReturnEveryClientOnceInIdOrder() {
+        for (int i = 0; i < 4; i++) {
+            Person person = new Person();
+            person.setName("Paged Client " + i);
+            person.setEmail("paged" + i + "@gmail.com");
+            person.setPhone("+84048120");
+            clientRepository.saveAndFlush(person);
+        }
+        long total = clientRepository.count();
+
+        List<UUID> seen = new ArrayList<>();
+        UUID after = null;
+        List<Client> page;
+        do {
+            page = clientService.getClientsAfter(after, 2);
+            page.forEach(c -> seen.add(c.getId()));
+            after = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+        } while (!page.isEmpty());
+
+        assertThat(seen).hasSize((int) total).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void streamingShouldVisitEveryClient() {
+        List<UUID> streamed = new ArrayList<>();
+        clientService.streamAllClients(c -> streamed.add(c.getId()));
+
+        assertThat(streamed).hasSize((int) clientRepository.count()).contains(testPerson.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // entities reach the second-level cache on commit
+    void clientLookupsShouldNotShareInstancesAndSeeUpdates() {
+        UUID id = testPerson.getId();
+        try {
+            Client first = clientService.getClientById(id);
+            Client second = clientService.getClientById(id);
+            assertThat(second).isNotSameAs(first); // callers may modify or attach the entity they get
+            assertThat(second.getName()).isEqualTo(first.getName());
+
+            testPerson.setPhone("+4129414124");
+            clientService.updateClient(id, testPerson);
+            assertThat(clientService.getClientById(id).getPhone()).isEqualTo("+4129414124");
+        } finally {
+            clientService.deleteClient(id);
+        }
+        assertThatThrownBy(() -> clientService.getClientById(id)).isInstanceOf(IllegalArgumentException.class);
+    }
 }
@@ -0,0 +1,168 @@
+package com.apifactory.clientcontractapi.service;
+
+import com.apifactory.clientcontractapi.dto.contract.ContractBatchResponse;
+import com.apifactory.clientcontractapi.dto.contract.ContractBatchRowResult;
+import com.apifactory.clientcontractapi.dto.contract.ContractRequest;
+import com.apifactory.clientcontractapi.model.ClientContractTotal;
+import com.apifactory.clientcontractapi.model.ClientType;
+import com.apifactory.clientcontractapi.model.Person;
+import com.apifactory.clientcontractapi.repository.ClientContractTotalRepository;
+import com.apifactory.clientcontractapi.repository.ClientRepository;
+import com.apifactory.clientcontractapi.repository.ContractRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for {@link ContractBatchService}.
+ * A chunk size of 2 makes the rows below span several chunks.
+ * Not transactional: each chunk must commit in its own transaction, as it does in production.
+ */
+@SpringBootTest(properties = "contracts.batch.chunk-size=2")
+@ActiveProfiles("test")
+class ContractBatchServiceTest {
+
+    @Autowired
+    private ContractBatchService contractBatchService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private ClientContractTotalRepository contractTotalRepository;
+
+    @Autowired
+    private ClientDeletionService clientDeletionService;
+
+    private Person testPerson;
+
+    @BeforeEach
+    void setup() {
+        testPerson = new Person();
+        testPerson.setName("Kamal Aarab");
+        testPerson.setEmail("kamal@gmail.com");
+        testPerson.setPhone("+84048120");
+        testPerson.setBirthDate(LocalDate.of(1998, 8, 9));
+        testPerson.setType(ClientType.PERSON);
+        clientRepository.saveAndFlush(testPerson);
+    }
+
+    @AfterEach
+    void cleanup() {
+        clientDeletionService.deleteClient(testPerson.getId());
+    }
+
+    @Test
+    void shouldCreateValidRowsAndRejectInvalidOnes() {
+        List<ContractRequest> requests = List.of(
+                request(testPerson.getId(), "100.00", null),
+                request(UUID.randomUUID(), "100.00", null),
+                request(testPerson.getId(), "-5", null),
+                request(testPerson.getId(), "200.00", LocalDateTime.now().plusDays(30)),
+                request(testPerson.getId(), "50.00", LocalDateTime.now().minusDays(1)));
+
+        ContractBatchResponse response = contractBatchService.createContracts(requests.iterator());
+
+        assertThat(response.getCreated()).isEqualTo(3);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getRows()).extracting(ContractBatchRowResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(response.getRows()).extracting(ContractBatchRowResult::getStatus).containsExactly(
+                ContractBatchRowResult.Status.CREATED, ContractBatchRowResult.Status.REJECTED,
+                ContractBatchRowResult.Status.REJECTED, ContractBatchRowResult.Status.CREATED,
+                ContractBatchRowResult.Status.CREATED);
+        assertThat(response.getRows().get(1).getError()).startsWith("Client not found");
+        assertThat(response.getRows().get(2).getError()).isEqualTo("Cost amount must be positive");
+
+        response.getRows().stream()
+                .filter(row -> row.getStatus() == ContractBatchRowResult.Status.CREATED)
+                .forEach(row -> assertThat(contractRepository.findById(row.getId())).isPresent());
+
+        // The expired contract is stored but not part of the active total
+        assertThat(contractService.getTotalActiveContractAmount(testPerson.getId())).isEqualByComparingTo("300.00");
+        assertTotalMatchesContracts();
+    }
+
+    @Test
+    void chunksBeforeAFailingChunkShouldStayCommitted() {
+        List<ContractRequest> requests = List.of(
+                request(testPerson.getId(), "100.00", null),
+                request(testPerson.getId(), "20.00", null),
+                request(testPerson.getId(), "1e40", null)); // valid, but too large for the cost_amount column
+
+        assertThatThrownBy(() -> contractBatchService.createContracts(requests.iterator()));
+
+        assertThat(contractRepository.countByClientId(testPerson.getId())).isEqualTo(2);
+        assertThat(contractService.getTotalActiveContractAmount(testPerson.getId())).isEqualByComparingTo("120.00");
+        assertTotalMatchesContracts();
+    }
+
+    @Test
+    void shouldKeepRowsReadBeforeMalformedInput() {
+        Iterator<ContractRequest> requests = new Iterator<>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                if (read == 3) {
+                    throw new IllegalStateException("Unexpected token");
+                }
+                return true;
+            }
+
+            @Override
+            public ContractRequest next() {
+                if (read == 3) {
+                    throw new NoSuchElementException();
+                }
+                read++;
+                return request(testPerson.getId(), "10.00", null);
+            }
+        };
+
+        ContractBatchResponse response = contractBatchService.createContracts(requests);
+
+        assertThat(response.getCreated()).isEqualTo(3);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getRows().get(3).getIndex()).isEqualTo(3);
+        assertThat(response.getRows().get(3).getError()).contains("ingestion stopped");
+        assertThat(contractService.getTotalActiveContractAmount(testPerson.getId())).isEqualByComparingTo("30.00");
+        assertTotalMatchesContracts();
+    }
+
+    // The running total written with each chunk (not the fallback of a missing one), against the committed contracts
+    private void assertTotalMatchesContracts() {
+        BigDecimal sum = contractRepository.sumActiveContractsByClientId(testPerson.getId());
+        assertThat(contractTotalRepository.findById(testPerson.getId())).get()
+                .extracting(ClientContractTotal::getActiveAmount).satisfies(amount -> assertThat(amount).isEqualByComparingTo(sum));
+        assertThat(contractService.getTotalActiveContractAmount(testPerson.getId())).isEqualByComparingTo(sum);
+    }
+
+    private static ContractRequest request(UUID clientId, String costAmount, LocalDateTime endDate) {
+        ContractRequest request = new ContractRequest();
+        request.setClientId(clientId);
+        request.setCostAmount(new BigDecimal(costAmount));
+        request.setEndDate(endDate);
+        return request;
+    }
+}
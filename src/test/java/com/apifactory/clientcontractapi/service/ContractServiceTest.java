@@ -1,31 +1,48 @@
 package com.apifactory.clientcontractapi.service;
 
+import com.apifactory.clientcontractapi.dto.contract.ClientTotalResponse;
+import com.apifactory.clientcontractapi.dto.contract.ContractResponse;
+import com.apifactory.clientcontractapi.model.ClientContractTotal;
 import com.apifactory.clientcontractapi.model.ClientType;
+import com.apifactory.clientcontractapi.model.Company;
 import com.apifactory.clientcontractapi.model.Contract;
+import com.apifactory.clientcontractapi.model.ContractCostHistory;
+import com.apifactory.clientcontractapi.model.ContractStatus;
 import com.apifactory.clientcontractapi.model.Person;
+import com.apifactory.clientcontractapi.repository.ClientContractTotalRepository;
 import com.apifactory.clientcontractapi.repository.ClientRepository;
+import com.apifactory.clientcontractapi.repository.ContractCostHistoryRepository;
 import com.apifactory.clientcontractapi.repository.ContractRepository;
 
 import jakarta.persistence.EntityManager;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Integration tests for {@link ContractService}.
+ * Batch and chunk sizes of 1 make the expiry sweep and the totals of many clients span several transactions or queries.
  */
-@SpringBootTest
+@SpringBootTest(properties = { "contracts.expiry.batch-size=1", "contracts.totals.chunk-size=1" })
 @Transactional
 @ActiveProfiles("test")
 class ContractServiceTest {
@@ -39,9 +56,27 @@ class ContractServiceTest {
     @Autowired
     private ContractRepository contractRepository;
 
+    @Autowired
+    private ContractTotalService contractTotalService;
+
+    @Autowired
+    private ContractExpiryService contractExpiryService;
+
+    @Autowired
+    private ClientContractTotalRepository contractTotalRepository;
+
+    @Autowired
+    private ContractCostHistoryRepository contractCostHistoryRepository;
+
+    @Autowired
+    private ClientService clientService;
+
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Person testPerson;
 
     @BeforeEach
@@ -55,6 +90,16 @@ class ContractServiceTest {
         clientRepository.saveAndFlush(testPerson);
     }
 
+    private Company createCompany() {
+        Company company = new Company();
+        company.setName("Acme");
+        company.setEmail("contact@acme.com");
+        company.setPhone("+41000000");
+        company.setCompanyId("acm-123");
+        company.setType(ClientType.COMPANY);
+        return clientRepository.saveAndFlush(company);
+    }
+
     @Test
     void shouldCreateContractWithDefaults() {
         Integer sizeContractsAlreadyCreated = contractRepository.findAll().size();
@@ -95,6 +140,52 @@ class ContractServiceTest {
         assertThat(activeContracts).contains(active).doesNotContain(closed);
     }
 
+    @Test
+    void activeContractResponsesShouldBeReadInOneStatement() {
+        for (int i = 0; i < 5; i++) {
+            contractService.createContract(testPerson.getId(), null, null, new BigDecimal("10.00"));
+        }
+        contractService.createContract(testPerson.getId(),
+                LocalDateTime.now().minusDays(30), LocalDateTime.now().minusDays(1), new BigDecimal("80.00"));
+        entityManager.flush();
+        entityManager.clear(); // nothing cached in the persistence context
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ContractResponse> responses = contractService.getActiveContractResponses(testPerson.getId(), null);
+
+        assertThat(responses).hasSize(5).allSatisfy(response -> {
+            assertThat(response.getClientName()).isEqualTo("Kamal Aarab");
+            assertThat(response.getCostAmount()).isEqualByComparingTo("10.00");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void changeFeedShouldPageThroughChangesInOrder() throws InterruptedException {
+        LocalDateTime since = LocalDateTime.now();
+        Thread.sleep(5);
+        Contract first = contractService.createContract(testPerson.getId(), null, null, new BigDecimal("10.00"));
+        Contract second = contractService.createContract(testPerson.getId(), null, null, new BigDecimal("20.00"));
+        Contract third = contractService.createContract(testPerson.getId(),
+                null, LocalDateTime.now().minusDays(1), new BigDecimal("30.00"));
+        Thread.sleep(5);
+        contractService.updateCostAmount(first.getId(), new BigDecimal("15.00")); // moves to the end of the feed
+        contractRepository.flush();
+        LocalDateTime until = LocalDateTime.now().plusSeconds(1);
+
+        List<ContractResponse> firstPage = contractService.getChanges(since, Long.MAX_VALUE, until, 2);
+        ContractResponse last = firstPage.get(firstPage.size() - 1);
+        List<ContractResponse> secondPage = contractService.getChanges(last.getUpdateDate(), last.getId(), until, 2);
+
+        assertThat(firstPage).extracting(ContractResponse::getId).containsExactly(second.getId(), third.getId());
+        assertThat(secondPage).extracting(ContractResponse::getId).containsExactly(first.getId());
+        assertThat(secondPage.get(0).getCostAmount()).isEqualByComparingTo("15.00");
+        assertThat(secondPage.get(0).getClientId()).isEqualTo(testPerson.getId());
+        assertThat(contractService.getChanges(since, Long.MAX_VALUE, since.plusNanos(1000), 10)).isEmpty();
+    }
+
     @Test
     void shouldSumOnlyActiveContracts() {
         contractService.createContract(testPerson.getId(),
@@ -105,4 +196,201 @@ class ContractServiceTest {
         BigDecimal sum = contractService.getTotalActiveContractAmount(testPerson.getId());
         assertThat(sum).isEqualTo(new BigDecimal("120.00"));
     }
+
+    @Test
+    void totalShouldFollowContractWrites() {
+        Contract contract = contractService.createContract(testPerson.getId(),
+                LocalDateTime.now().minusDays(5), null, new BigDecimal("100.00"));
+        contractService.createContract(testPerson.getId(),
+                LocalDateTime.now().minusDays(5), LocalDateTime.now().plusDays(30), new BigDecimal("40.00"));
+        assertThat(contractService.getTotalActiveContractAmount(testPerson.getId())).isEqualByComparingTo("140.00");
+
+        contractService.updateCostAmount(contract.getId(), new BigDecimal("160.00"));
+        assertThat(contractService.getTotalActiveContractAmount(testPerson.getId())).isEqualByComparingTo("200.00");
+
+        ClientContractTotal total = contractTotalRepository.findById(testPerson.getId()).orElseThrow();
+        assertThat(total.getActiveCount()).isEqualTo(2);
+        assertThat(total.getActiveAmount())
+                .isEqualByComparingTo(contractRepository.sumActiveContractsByClientId(testPerson.getId()));
+    }
+
+    @Test
+    void totalShouldTreatALegacyContractWithoutAmountAsZero() {
+        Contract legacy = contractService.createContract(testPerson.getId(), null, null, new BigDecimal("100.00"));
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE contract SET cost_amount = NULL WHERE id = ?1")
+                .setParameter(1, legacy.getId())
+                .executeUpdate();
+        entityManager.createNativeQuery("UPDATE client_contract_total SET active_amount = 0 WHERE client_id = ?1")
+                .setParameter(1, testPerson.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        contractService.updateCostAmount(legacy.getId(), new BigDecimal("50.00"));
+
+        assertThat(contractService.getTotalActiveContractAmount(testPerson.getId()))
+                .isEqualByComparingTo(contractRepository.sumActiveContractsByClientId(testPerson.getId()))
+                .isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void costHistoryShouldGiveTheTotalAtPastInstants() throws InterruptedException {
+        LocalDateTime beforeCreation = LocalDateTime.now().minusSeconds(1);
+        Contract contract = contractService.createContract(testPerson.getId(), null, null, new BigDecimal("100.00"));
+        contractService.createContract(testPerson.getId(), null, null, new BigDecimal("20.00"));
+        Thread.sleep(5);
+        LocalDateTime beforeUpdate = LocalDateTime.now();
+        Thread.sleep(5);
+        contractService.updateCostAmount(contract.getId(), new BigDecimal("150.00"));
+        entityManager.flush();
+
+        assertThat(contractService.getTotalActiveContractAmountAt(testPerson.getId(), beforeCreation)).isEqualByComparingTo("0");
+        assertThat(contractService.getTotalActiveContractAmountAt(testPerson.getId(), beforeUpdate)).isEqualByComparingTo("120.00");
+        assertThat(contractService.getTotalActiveContractAmountAt(testPerson.getId(), LocalDateTime.now()))
+                .isEqualByComparingTo(contractService.getTotalActiveContractAmount(testPerson.getId()))
+                .isEqualByComparingTo("170.00");
+
+        entityManager.clear(); // the current amount was closed by a bulk update
+        List<ContractCostHistory> history = contractCostHistoryRepository.findByContractIdOrderByValidFromAsc(contract.getId());
+        assertThat(history).extracting(ContractCostHistory::getCostAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100.00"), new BigDecimal("150.00"));
+        assertThat(history.get(0).getValidTo()).isEqualTo(history.get(1).getValidFrom());
+        assertThat(history.get(1).getValidTo()).isNull();
+    }
+
+    @Test
+    void totalsOfManyClientsShouldMatchPerClientTotals() {
+        Company company = createCompany();
+        contractService.createContract(testPerson.getId(), null, null, new BigDecimal("120.00"));
+        contractService.createContract(testPerson.getId(), null, LocalDateTime.now().plusDays(3), new BigDecimal("30.00"));
+        contractService.createContract(testPerson.getId(),
+                LocalDateTime.now().minusDays(20), LocalDateTime.now().minusDays(5), new BigDecimal("50.00"));
+        contractService.createContract(company.getId(), null, null, new BigDecimal("70.00"));
+
+        Set<UUID> clientIds = Set.of(testPerson.getId(), company.getId(), UUID.randomUUID());
+        List<ClientTotalResponse> totals = new ArrayList<>();
+        contractService.streamActiveTotals(clientIds, null, totals::add);
+
+        assertThat(totals).hasSize(2); // unknown client left out
+        assertThat(totals).extracting(ClientTotalResponse::getClientId) // one query per client, in database order
+                .containsExactlyElementsOf(contractRepository.sumActiveContractsByClientIds(List.copyOf(clientIds), null)
+                        .stream().map(ClientTotalResponse::getClientId).toList());
+        for (ClientTotalResponse total : totals) {
+            assertThat(total.getAmount()).as("total of %s", total.getClientId())
+                    .isEqualByComparingTo(contractService.getTotalActiveContractAmount(total.getClientId()));
+        }
+        assertThat(totals).filteredOn(total -> total.getClientId().equals(testPerson.getId()))
+                .singleElement().extracting(ClientTotalResponse::getCount).isEqualTo(2L);
+
+        List<ClientTotalResponse> companies = new ArrayList<>();
+        contractService.streamActiveTotals(clientIds, ClientType.COMPANY, companies::add);
+        assertThat(companies).extracting(ClientTotalResponse::getClientId).containsExactly(company.getId());
+    }
+
+    @Test
+    void totalsByTypeShouldIncludeClientsWithoutActiveContracts() {
+        List<ClientTotalResponse> totals = new ArrayList<>();
+        contractService.streamActiveTotals(null, ClientType.PERSON, totals::add);
+
+        assertThat(totals).filteredOn(total -> total.getClientId().equals(testPerson.getId()))
+                .singleElement().satisfies(total -> {
+                    assertThat(total.getAmount()).isEqualByComparingTo("0");
+                    assertThat(total.getCount()).isZero();
+                });
+        assertThat(totals).extracting(ClientTotalResponse::getClientId).isSorted();
+    }
+
+    @Test
+    void renewalsShouldPageThroughContractsEndingInTheWindow() {
+        Company company = createCompany();
+        LocalDateTime now = LocalDateTime.now();
+        Contract inFiveDays = contractService.createContract(testPerson.getId(), null, now.plusDays(5), new BigDecimal("10.00"));
+        Contract inTwoDays = contractService.createContract(testPerson.getId(), null, now.plusDays(2), new BigDecimal("20.00"));
+        Contract companyInThreeDays = contractService.createContract(company.getId(), null, now.plusDays(3), new BigDecimal("30.00"));
+        contractService.createContract(testPerson.getId(), null, now.plusDays(40), new BigDecimal("40.00"));
+        contractService.createContract(testPerson.getId(), null, null, new BigDecimal("50.00"));
+        contractService.createContract(testPerson.getId(), now.minusDays(20), now.minusDays(1), new BigDecimal("60.00"));
+
+        LocalDateTime until = contractService.renewalWindowEnd(30);
+        List<Long> ids = new ArrayList<>();
+        LocalDateTime afterDate = contractService.renewalWindowStart();
+        long afterId = 0;
+        List<ContractResponse> page;
+        while (!(page = contractService.getRenewals(afterDate, afterId, until, null, 1)).isEmpty()) {
+            ContractResponse last = page.get(0);
+            ids.add(last.getId());
+            afterDate = last.getEndDate();
+            afterId = last.getId();
+        }
+        assertThat(ids).containsExactly(inTwoDays.getId(), companyInThreeDays.getId(), inFiveDays.getId());
+
+        List<ContractResponse> companies = new ArrayList<>();
+        contractService.streamRenewals(contractService.renewalWindowStart(), 0, until, ClientType.COMPANY, companies::add);
+        assertThat(companies).extracting(ContractResponse::getId).containsExactly(companyInThreeDays.getId());
+        assertThat(companies.get(0).getClientName()).isEqualTo("Acme");
+    }
+
+    @Test
+    void reconcilerShouldRebuildTotalsWithExpiredContracts() {
+        contractService.createContract(testPerson.getId(),
+                LocalDateTime.now().minusDays(5), null, new BigDecimal("100.00"));
+
+        // Simulate a contract that expired since the total was computed
+        ClientContractTotal total = contractTotalRepository.findById(testPerson.getId()).orElseThrow();
+        total.setActiveAmount(new BigDecimal("999.00"));
+        total.setNextExpiry(LocalDateTime.now().minusDays(1));
+        contractTotalRepository.saveAndFlush(total);
+
+        contractTotalService.reconcileExpiredTotals();
+
+        ClientContractTotal rebuilt = contractTotalRepository.findById(testPerson.getId()).orElseThrow();
+        assertThat(rebuilt.getActiveAmount()).isEqualByComparingTo("100.00");
+        assertThat(rebuilt.getNextExpiry()).isNull();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // each batch of the sweep commits on its own
+    void expirySweepShouldExpireEndedContractsAndRebuildTotals() {
+        try {
+            Contract ending = contractService.createContract(testPerson.getId(),
+                    LocalDateTime.now().minusDays(5), LocalDateTime.now().plusDays(1), new BigDecimal("40.00"));
+            Contract alsoEnding = contractService.createContract(testPerson.getId(),
+                    LocalDateTime.now().minusDays(5), LocalDateTime.now().plusDays(2), new BigDecimal("60.00"));
+            contractService.createContract(testPerson.getId(),
+                    LocalDateTime.now().minusDays(5), null, new BigDecimal("100.00"));
+            assertThat(ending.getStatus()).isEqualTo(ContractStatus.ACTIVE);
+            assertThat(contractService.getTotalActiveContractAmount(testPerson.getId())).isEqualByComparingTo("200.00");
+
+            // Simulate the night passing: the contracts ended yesterday but are still ACTIVE until the sweep
+            LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(12, 0);
+            jdbcTemplate.update("UPDATE contract SET end_date = ? WHERE id IN (?, ?)",
+                    yesterday, ending.getId(), alsoEnding.getId());
+            jdbcTemplate.update("UPDATE client_contract_total SET next_expiry = ? WHERE client_id = ?",
+                    yesterday, testPerson.getId());
+
+            assertThat(contractExpiryService.expireContracts()).isEqualTo(2); // two batches of one contract
+
+            assertThat(contractRepository.findById(ending.getId()).orElseThrow().getStatus())
+                    .isEqualTo(ContractStatus.EXPIRED);
+            assertThat(contractRepository.findById(alsoEnding.getId()).orElseThrow().getStatus())
+                    .isEqualTo(ContractStatus.EXPIRED);
+            assertThat(contractService.getTotalActiveContractAmount(testPerson.getId())).isEqualByComparingTo("100.00");
+            assertThat(contractTotalRepository.findById(testPerson.getId()).orElseThrow().getNextExpiry()).isNull();
+            assertThat(contractExpiryService.expireContracts()).isZero();
+        } finally {
+            deleteCommittedClient(testPerson.getId());
+        }
+    }
+
+    // Committed rows are not rolled back after the test: removes the client with its contracts and their history
+    private void deleteCommittedClient(UUID clientId) {
+        jdbcTemplate.update("DELETE FROM contract_cost_history WHERE contract_id IN (SELECT id FROM contract WHERE client_id = ?)",
+                clientId);
+        jdbcTemplate.update("DELETE FROM contract WHERE client_id = ?", clientId);
+        clientService.deleteClient(clientId); // also drops its total and its second-level cache entry
+
+        assertThat(contractRepository.countByClientId(clientId)).isZero();
+        assertThat(contractTotalRepository.existsById(clientId)).isFalse();
+    }
 }
@@ -0,0 +1,105 @@
+package com.apifactory.clientcontractapi.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ConcurrencyLimitFilter}.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(true, 1, 1, Duration.ZERO, meterRegistry);
+
+    @Test
+    void shouldRejectRequestsAboveTheLimit() throws Exception {
+        MockHttpServletResponse secondResponse = new MockHttpServletResponse();
+
+        // The second request arrives while the first one still holds the only permit
+        FilterChain firstChain = (request, response) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/clients"), secondResponse, new MockFilterChain());
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/clients"), firstResponse, firstChain);
+
+        assertThat(firstResponse.getStatus()).isEqualTo(200);
+        assertThat(secondResponse.getStatus()).isEqualTo(503);
+        assertThat(secondResponse.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.counter("concurrency.limit.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReleasePermitAfterEachRequest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/clients"), response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void streamedResponsesShouldHaveTheirOwnLimit() throws Exception {
+        MockHttpServletResponse apiResponse = new MockHttpServletResponse();
+        MockHttpServletResponse secondStream = new MockHttpServletResponse();
+
+        // While a stream holds the only stream permit, API requests still go through, another stream does not
+        FilterChain streamChain = (request, response) -> {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/clients"), apiResponse, new MockFilterChain());
+            filter.doFilter(ndjsonRequest(), secondStream, new MockFilterChain());
+        };
+        filter.doFilter(ndjsonRequest(), new MockHttpServletResponse(), streamChain);
+
+        assertThat(apiResponse.getStatus()).isEqualTo(200);
+        assertThat(secondStream.getStatus()).isEqualTo(503);
+    }
+
+    @Test
+    void asyncResponseShouldHoldAStreamPermitUntilItCompletes() throws Exception {
+        // No NDJSON in the Accept header, the handler still streams its response
+        MockHttpServletRequest wildcard = new MockHttpServletRequest("GET", "/api/clients");
+        wildcard.addHeader("Accept", "*/*");
+        wildcard.setAsyncSupported(true);
+        filter.doFilter(wildcard, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        MockHttpServletResponse apiResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/clients"), apiResponse, new MockFilterChain());
+        MockHttpServletResponse streamDuring = new MockHttpServletResponse();
+        filter.doFilter(ndjsonRequest(), streamDuring, new MockFilterChain());
+        ((MockAsyncContext) wildcard.getAsyncContext()).complete();
+        MockHttpServletResponse streamAfter = new MockHttpServletResponse();
+        filter.doFilter(ndjsonRequest(), streamAfter, new MockFilterChain());
+
+        assertThat(apiResponse.getStatus()).isEqualTo(200);
+        assertThat(streamDuring.getStatus()).isEqualTo(503);
+        assertThat(streamAfter.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldNotLimitAuthenticationAndActuator() throws Exception {
+        FilterChain nested = (request, response) -> {
+            MockHttpServletResponse login = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), login, new MockFilterChain());
+            MockHttpServletResponse health = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, new MockFilterChain());
+            assertThat(login.getStatus()).isEqualTo(200);
+            assertThat(health.getStatus()).isEqualTo(200);
+        };
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/clients"), new MockHttpServletResponse(), nested);
+    }
+
+    private static MockHttpServletRequest ndjsonRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clients");
+        request.addHeader("Accept", "application/x-ndjson");
+        return request;
+    }
+}